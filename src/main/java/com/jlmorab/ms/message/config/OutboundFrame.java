@@ -0,0 +1,75 @@
+package com.jlmorab.ms.message.config;
+
+import java.io.IOException;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlmorab.ms.message.WebSocketMessage;
+import com.jlmorab.ms.message.tracing.MessageSerializedEvent;
+import com.jlmorab.ms.message.tracing.MessageTracing;
+
+import lombok.Getter;
+
+/**
+ * Message waiting in a session outbound lane. A single frame may be shared by
+ * every subscriber of a channel, so the JSON is serialized once and only when
+ * the first session actually writes it.
+ */
+@Getter
+class OutboundFrame {
+
+	static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+	private final WebSocketMessage message;
+
+	private final int lane;
+
+	private final long expiresAt;
+
+	private final FailureHandler failureHandler;
+
+	private final long traceId;
+
+	private final long createdNanos = System.nanoTime();
+
+	private volatile String json;
+
+	OutboundFrame( WebSocketMessage message, int lane, long expiresAt, long traceId, FailureHandler failureHandler ) {
+		this.message = message;
+		this.lane = lane;
+		this.expiresAt = expiresAt;
+		this.traceId = traceId;
+		this.failureHandler = failureHandler;
+	}//end OutboundFrame()
+
+	boolean isExpired( long now ) {
+		return now > expiresAt;
+	}//end isExpired()
+
+	String toJson( ObjectMapper mapper, MessageTracing tracing ) throws JsonProcessingException {
+		String result = json;
+		if( result == null ) {
+			MessageSerializedEvent event = new MessageSerializedEvent();
+			event.begin();
+			result = mapper.writeValueAsString( message );
+			json = result;
+			event.end();
+			if( tracing.shouldCommit( event, traceId ) ) {
+				event.traceId = traceId;
+				event.action = String.valueOf( message.getAction() );
+				event.channel = message.getChannel();
+				event.bytes = result.length();
+				event.commit();
+			}//end if
+		}//end if
+		return result;
+	}//end toJson()
+
+	@FunctionalInterface
+	interface FailureHandler {
+		void onFailure( WebSocketSession session, IOException e );
+	}//end FailureHandler
+
+}
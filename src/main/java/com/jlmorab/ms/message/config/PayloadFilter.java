@@ -0,0 +1,289 @@
+package com.jlmorab.ms.message.config;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import lombok.Getter;
+
+/**
+ * Compiled subscription filter over the JSON payload of a message.
+ * <p>
+ * Grammar: comparisons {@code field op literal} joined with {@code &&}, and
+ * groups of those joined with {@code ||}. Fields are dotted paths
+ * ({@code quote.bid}, {@code items.0.id}), operators are {@code == != > >= < <=}
+ * and literals are numbers, quoted strings, {@code true}, {@code false} or
+ * {@code null}. A missing field only matches {@code == null}.
+ */
+class PayloadFilter {
+
+	@Getter
+	private final String key;
+
+	private final List<List<Comparison>> groups;
+
+	private PayloadFilter( List<List<Comparison>> groups ) {
+		this.groups = groups;
+		this.key = groups.stream()
+				.map( group -> group.stream().map( Comparison::toString ).collect( Collectors.joining(" && ") ) )
+				.collect( Collectors.joining(" || ") );
+	}//end PayloadFilter()
+
+	static PayloadFilter compile( String expression ) {
+		if( expression == null || expression.isBlank() ) {
+			throw new IllegalArgumentException("Invalid filter: expression is empty");
+		}//end if
+		return new PayloadFilter( new Parser( expression ).parse() );
+	}//end compile()
+
+	boolean matches( JsonNode payload ) {
+		for( List<Comparison> group : groups ) {
+			boolean all = true;
+			for( Comparison comparison : group ) {
+				if( !comparison.matches( payload ) ) {
+					all = false;
+					break;
+				}//end if
+			}//end for
+			if( all ) return true;
+		}//end for
+		return false;
+	}//end matches()
+
+	@Override
+	public String toString() {
+		return key;
+	}//end toString()
+
+	/**
+	 * Evaluates filters against one message, parsing the payload at most once
+	 * and each distinct filter at most once. Not thread safe.
+	 */
+	static class Evaluation {
+
+		private final ObjectMapper mapper;
+
+		private final String payload;
+
+		private final Map<PayloadFilter, Boolean> results = new IdentityHashMap<>();
+
+		private JsonNode node;
+
+		Evaluation( ObjectMapper mapper, String payload ) {
+			this.mapper = mapper;
+			this.payload = payload;
+		}//end Evaluation()
+
+		boolean matches( PayloadFilter filter ) {
+			return results.computeIfAbsent( filter, f -> f.matches( node() ) );
+		}//end matches()
+
+		private JsonNode node() {
+			if( node == null ) {
+				try {
+					node = payload == null ? MissingNode.getInstance() : mapper.readTree( payload );
+				} catch( Exception e ) {
+					node = MissingNode.getInstance();
+				}//end try
+			}//end if
+			return node;
+		}//end node()
+
+	}//end Evaluation
+
+	private enum Operator {
+		EQ("=="), NE("!="), GT(">"), GE(">="), LT("<"), LE("<=");
+
+		private final String symbol;
+
+		Operator( String symbol ) {
+			this.symbol = symbol;
+		}//end Operator()
+
+		boolean test( int comparison ) {
+			return switch( this ) {
+				case EQ -> comparison == 0;
+				case NE -> comparison != 0;
+				case GT -> comparison > 0;
+				case GE -> comparison >= 0;
+				case LT -> comparison < 0;
+				case LE -> comparison <= 0;
+			};
+		}//end test()
+	}//end Operator
+
+	private record Comparison( String field, JsonPointer pointer, Operator operator, Object literal ) {
+
+		boolean matches( JsonNode payload ) {
+			JsonNode value = payload.at( pointer );
+			if( literal == null ) {
+				boolean isNull = value.isMissingNode() || value.isNull();
+				return operator == Operator.EQ ? isNull : !isNull;
+			}//end if
+			if( literal instanceof BigDecimal number ) {
+				return value.isNumber() && operator.test( value.decimalValue().compareTo( number ) );
+			}//end if
+			if( literal instanceof Boolean bool ) {
+				return value.isBoolean() && operator.test( value.booleanValue() == bool ? 0 : 1 );
+			}//end if
+			return value.isTextual() && operator.test( value.textValue().compareTo( (String) literal ) );
+		}//end matches()
+
+		@Override
+		public String toString() {
+			String value = String.valueOf( literal );
+			if( literal instanceof String text ) value = "'" + text.replace("'", "\\'") + "'";
+			if( literal instanceof BigDecimal number ) value = number.stripTrailingZeros().toString();
+			return field + " " + operator.symbol + " " + value;
+		}//end toString()
+
+	}//end Comparison
+
+	private static class Parser {
+
+		private final String source;
+
+		private int position;
+
+		Parser( String source ) {
+			this.source = source;
+		}//end Parser()
+
+		List<List<Comparison>> parse() {
+			List<List<Comparison>> groups = new ArrayList<>();
+			groups.add( parseGroup() );
+			while( consume("||") ) {
+				groups.add( parseGroup() );
+			}//end while
+			skipSpaces();
+			if( position < source.length() ) throw error("unexpected '" + source.charAt( position ) + "'");
+			return groups;
+		}//end parse()
+
+		private List<Comparison> parseGroup() {
+			List<Comparison> group = new ArrayList<>();
+			group.add( parseComparison() );
+			while( consume("&&") ) {
+				group.add( parseComparison() );
+			}//end while
+			return group;
+		}//end parseGroup()
+
+		private Comparison parseComparison() {
+			String field = parseField();
+			Operator operator = parseOperator();
+			Object literal = parseLiteral();
+			if( ( literal == null || literal instanceof Boolean ) && operator != Operator.EQ && operator != Operator.NE ) {
+				throw error("operator " + operator.symbol + " can't be used with " + literal);
+			}//end if
+			JsonPointer pointer = JsonPointer.compile( "/" + field.replace( '.', '/' ) );
+			return new Comparison( field, pointer, operator, literal );
+		}//end parseComparison()
+
+		private String parseField() {
+			skipSpaces();
+			int start = position;
+			while( position < source.length() && isFieldChar( source.charAt( position ) ) ) {
+				position++;
+			}//end while
+			if( start == position ) throw error("field expected");
+			String field = source.substring( start, position );
+			if( field.startsWith(".") || field.endsWith(".") || field.contains("..") ) throw error("invalid field " + field);
+			return field;
+		}//end parseField()
+
+		private Operator parseOperator() {
+			for( String symbol : List.of( "==", "!=", ">=", "<=", ">", "<" ) ) {
+				if( consume( symbol ) ) {
+					for( Operator operator : Operator.values() ) {
+						if( operator.symbol.equals( symbol ) ) return operator;
+					}//end for
+				}//end if
+			}//end for
+			throw error("operator expected");
+		}//end parseOperator()
+
+		private Object parseLiteral() {
+			skipSpaces();
+			if( position >= source.length() ) throw error("value expected");
+			char first = source.charAt( position );
+			if( first == '\'' || first == '"' ) return parseString( first );
+
+			int start = position;
+			while( position < source.length() && isLiteralChar( source.charAt( position ) ) ) {
+				position++;
+			}//end while
+			String word = source.substring( start, position );
+			return switch( word ) {
+				case "true" -> Boolean.TRUE;
+				case "false" -> Boolean.FALSE;
+				case "null" -> null;
+				default -> parseNumber( word );
+			};
+		}//end parseLiteral()
+		
+		private BigDecimal parseNumber( String word ) {
+			BigDecimal number;
+			try {
+				number = new BigDecimal( word );
+			} catch( NumberFormatException e ) {
+				throw error("invalid value " + word);
+			}//end try
+			if( Double.isInfinite( number.doubleValue() ) ) throw error("value out of range " + word);
+			return number;
+		}//end parseNumber()
+
+		private String parseString( char quote ) {
+			StringBuilder value = new StringBuilder();
+			position++;
+			while( position < source.length() ) {
+				char c = source.charAt( position++ );
+				if( c == '\\' && position < source.length() ) {
+					value.append( source.charAt( position++ ) );
+				} else if( c == quote ) {
+					return value.toString();
+				} else {
+					value.append( c );
+				}//end if
+			}//end while
+			throw error("unterminated string");
+		}//end parseString()
+
+		private boolean consume( String token ) {
+			skipSpaces();
+			if( source.startsWith( token, position ) ) {
+				position += token.length();
+				return true;
+			}//end if
+			return false;
+		}//end consume()
+
+		private void skipSpaces() {
+			while( position < source.length() && Character.isWhitespace( source.charAt( position ) ) ) {
+				position++;
+			}//end while
+		}//end skipSpaces()
+
+		private static boolean isFieldChar( char c ) {
+			return Character.isLetterOrDigit( c ) || c == '_' || c == '.' || c == '-';
+		}//end isFieldChar()
+		
+		private static boolean isLiteralChar( char c ) {
+			return isFieldChar( c ) || c == '+';
+		}//end isLiteralChar()
+
+		private IllegalArgumentException error( String detail ) {
+			return new IllegalArgumentException( String.format("Invalid filter at position %d: %s", position, detail) );
+		}//end error()
+
+	}//end Parser
+
+}
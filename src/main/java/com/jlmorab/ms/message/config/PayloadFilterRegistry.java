@@ -0,0 +1,43 @@
+package com.jlmorab.ms.message.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares compiled filters between subscriptions. Expressions that compile to
+ * the same filter get the same instance, so a published message is evaluated
+ * once per distinct filter instead of once per subscriber.
+ */
+class PayloadFilterRegistry {
+
+	private final Map<String, SharedFilter> filters = new ConcurrentHashMap<>();
+
+	PayloadFilter acquire( PayloadFilter compiled ) {
+		return filters.compute( compiled.getKey(), ( key, shared ) -> {
+			SharedFilter current = shared == null ? new SharedFilter( compiled ) : shared;
+			current.references++;
+			return current;
+		}).filter;
+	}//end acquire()
+
+	void release( PayloadFilter filter ) {
+		filters.computeIfPresent( filter.getKey(), ( key, shared ) -> --shared.references > 0 ? shared : null );
+	}//end release()
+
+	int size() {
+		return filters.size();
+	}//end size()
+
+	private static class SharedFilter {
+
+		private final PayloadFilter filter;
+
+		private int references;
+
+		SharedFilter( PayloadFilter filter ) {
+			this.filter = filter;
+		}//end SharedFilter()
+
+	}//end SharedFilter
+
+}
@@ -0,0 +1,157 @@
+package com.jlmorab.ms.message.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlmorab.ms.message.tracing.MessageTracing;
+import com.jlmorab.ms.message.tracing.SessionWriteEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-session outbound buffer split in priority lanes, lane 0 being the most
+ * urgent. Only one thread writes to the session at a time; while it is busy
+ * other producers just enqueue and return, and the writer always picks the
+ * next frame from the most urgent non-empty lane, dropping expired frames
+ * before they are serialized. Every lane but the control one keeps at most
+ * {@code laneCapacity} frames and drops the oldest when a slow consumer fills it.
+ */
+@Slf4j
+class SessionOutboundQueue {
+
+	private static final int CONTROL_LANE = 0;
+
+	private final WebSocketSession session;
+
+	private final ObjectMapper mapper;
+
+	private final MessageTracing tracing;
+
+	private final List<Lane> lanes;
+
+	private final int laneCapacity;
+
+	private final AtomicBoolean draining = new AtomicBoolean( false );
+
+	SessionOutboundQueue( WebSocketSession session, ObjectMapper mapper, MessageTracing tracing, int laneCount, int laneCapacity ) {
+		this.session = session;
+		this.mapper = mapper;
+		this.tracing = tracing;
+		this.laneCapacity = laneCapacity;
+		this.lanes = new ArrayList<>( laneCount );
+		for( int i = 0; i < laneCount; i++ ) {
+			lanes.add( new Lane() );
+		}//end for
+	}//end SessionOutboundQueue()
+
+	void offer( OutboundFrame frame ) {
+		int index = Math.max( CONTROL_LANE, Math.min( lanes.size() - 1, frame.getLane() ) );
+		Lane lane = lanes.get( index );
+		lane.offer( frame );
+		if( index != CONTROL_LANE && laneCapacity > 0 ) {
+			while( lane.size() > laneCapacity ) {
+				OutboundFrame dropped = lane.poll();
+				if( dropped == null ) break;
+				log.debug("Dropped message for session {} on channel {}, lane {} is full",
+						session.getId(), dropped.getMessage().getChannel(), index);
+			}//end while
+		}//end if
+		drain();
+	}//end offer()
+
+	int size() {
+		return lanes.stream().mapToInt( Lane::size ).sum();
+	}//end size()
+
+	private void drain() {
+		while( hasPending() && draining.compareAndSet( false, true ) ) {
+			try {
+				OutboundFrame frame;
+				while( ( frame = poll() ) != null ) {
+					write( frame );
+				}//end while
+			} finally {
+				draining.set( false );
+			}//end try
+		}//end while
+	}//end drain()
+
+	private boolean hasPending() {
+		for( Lane lane : lanes ) {
+			if( lane.size() > 0 ) return true;
+		}//end for
+		return false;
+	}//end hasPending()
+
+	private OutboundFrame poll() {
+		for( Lane lane : lanes ) {
+			OutboundFrame frame = lane.poll();
+			if( frame != null ) return frame;
+		}//end for
+		return null;
+	}//end poll()
+
+	private void write( OutboundFrame frame ) {
+		if( frame.isExpired( System.currentTimeMillis() ) ) {
+			log.debug("Dropped expired message for session {} on channel {}",
+					session.getId(), frame.getMessage().getChannel());
+			return;
+		}//end if
+
+		if( !session.isOpen() ) return;
+
+		try {
+			String json = frame.toJson( mapper, tracing );
+			SessionWriteEvent event = new SessionWriteEvent();
+			long queued = event.isEnabled() ? System.nanoTime() - frame.getCreatedNanos() : 0L;
+			event.begin();
+			session.sendMessage( new TextMessage( json ) );
+			event.end();
+			if( tracing.shouldCommit( event, frame.getTraceId() ) ) {
+				event.traceId = frame.getTraceId();
+				event.sessionId = session.getId();
+				event.action = String.valueOf( frame.getMessage().getAction() );
+				event.channel = frame.getMessage().getChannel();
+				event.lane = frame.getLane();
+				event.bytes = json.length();
+				event.queued = queued;
+				event.commit();
+			}//end if
+		} catch( IOException e ) {
+			frame.getFailureHandler().onFailure( session, e );
+		}//end try
+	}//end write()
+
+	private static class Lane {
+
+		private final Queue<OutboundFrame> frames = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger( 0 );
+
+		void offer( OutboundFrame frame ) {
+			frames.offer( frame );
+			size.incrementAndGet();
+		}//end offer()
+
+		OutboundFrame poll() {
+			OutboundFrame frame = frames.poll();
+			if( frame != null ) size.decrementAndGet();
+			return frame;
+		}//end poll()
+
+		int size() {
+			return size.get();
+		}//end size()
+
+	}//end Lane
+
+}
@@ -0,0 +1,238 @@
+package com.jlmorab.ms.message.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Channel sets of the resume tokens issued to clients. The state is written
+ * periodically to a compact binary file and read back on startup, so a
+ * reconnecting client restores all its channels with a single frame.
+ * <p>
+ * Tokens are random and only issued by the broker, so a session can't pick
+ * the token of another client; they still work as bearer secrets.
+ * <p>
+ * File layout: magic, version, token count and, for every token, its last
+ * use time and channels. Strings are stored as length-prefixed UTF-8.
+ * Restored tokens count their idle time from the restore, so neither the
+ * downtime nor a long lived connection expires them before clients reconnect.
+ */
+@Slf4j
+@Component
+public class SubscriptionSnapshotStore {
+
+	static final int MAGIC = 0x4D534753;
+
+	static final int VERSION = 1;
+
+	private static final int TOKEN_BYTES = 24;
+
+	private final SecureRandom random = new SecureRandom();
+
+	private final Map<String, ResumeState> states = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean dirty = new AtomicBoolean( false );
+
+	@Value("${websocket.snapshot.path:}")
+	private String snapshotPath;
+
+	@Value("${websocket.snapshot.token-ttl-ms:86400000}")
+	private long tokenTtlMs;
+
+	/**
+	 * Issues a new token already bound to the requesting session.
+	 */
+	public String issue() {
+		byte[] bytes = new byte[ TOKEN_BYTES ];
+		random.nextBytes( bytes );
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString( bytes );
+		ResumeState state = new ResumeState( ConcurrentHashMap.newKeySet(), System.currentTimeMillis() );
+		state.bound.incrementAndGet();
+		states.put( token, state );
+		dirty.set( true );
+		return token;
+	}//end issue()
+
+	/**
+	 * Binds a session to an issued token and returns the channels it had
+	 * subscribed, or {@code null} when the token is unknown.
+	 */
+	public Set<String> resume( String token ) {
+		if( token == null ) return null;
+		ResumeState state = states.computeIfPresent( token, ( k, current ) -> {
+			current.bound.incrementAndGet();
+			current.lastSeen = System.currentTimeMillis();
+			return current;
+		});
+		return state == null ? null : new HashSet<>( state.channels );
+	}//end resume()
+
+	public void release( String token ) {
+		states.computeIfPresent( token, ( k, state ) -> {
+			state.bound.decrementAndGet();
+			state.lastSeen = System.currentTimeMillis();
+			return state;
+		});
+	}//end release()
+
+	public void addChannel( String token, String channel ) {
+		ResumeState state = states.get( token );
+		if( state != null && state.channels.add( channel ) ) dirty.set( true );
+	}//end addChannel()
+
+	public void removeChannel( String token, String channel ) {
+		ResumeState state = states.get( token );
+		if( state != null && state.channels.remove( channel ) ) dirty.set( true );
+	}//end removeChannel()
+
+	public Set<String> channelsOf( String token ) {
+		ResumeState state = states.get( token );
+		return state == null ? Collections.emptySet() : Collections.unmodifiableSet( state.channels );
+	}//end channelsOf()
+
+	@Scheduled(fixedDelayString = "${websocket.snapshot.interval-ms:30000}")
+	public synchronized void snapshot() {
+		expireTokens();
+		if( !isEnabled() || !dirty.getAndSet( false ) ) return;
+
+		Path path = Path.of( snapshotPath );
+		Path temporary = path.resolveSibling( path.getFileName() + ".tmp" );
+		try {
+			if( path.getParent() != null ) Files.createDirectories( path.getParent() );
+			try( DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream( Files.newOutputStream( temporary ) ) ) ) {
+				Map<String, ResumeState> current = Map.copyOf( states );
+				out.writeInt( MAGIC );
+				out.writeInt( VERSION );
+				out.writeInt( current.size() );
+				for( Map.Entry<String, ResumeState> entry : current.entrySet() ) {
+					Set<String> channels = Set.copyOf( entry.getValue().channels );
+					writeString( out, entry.getKey() );
+					out.writeLong( entry.getValue().lastSeen );
+					out.writeInt( channels.size() );
+					for( String channel : channels ) {
+						writeString( out, channel );
+					}//end for
+				}//end for
+			}//end try
+			try {
+				Files.move( temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+			} catch( AtomicMoveNotSupportedException e ) {
+				Files.move( temporary, path, StandardCopyOption.REPLACE_EXISTING );
+			}//end try
+			log.debug("Subscription snapshot written with {} resume tokens", states.size());
+		} catch( IOException e ) {
+			dirty.set( true );
+			log.error("Subscription snapshot couldn't be written to {}: {}", snapshotPath, e.getMessage(), e);
+		}//end try
+	}//end snapshot()
+
+	@PostConstruct
+	public void restore() {
+		if( !isEnabled() ) return;
+
+		Path path = Path.of( snapshotPath );
+		if( !Files.isRegularFile( path ) ) return;
+
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( path ) );
+			if( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) {
+				log.warn("Subscription snapshot {} has an unknown format, skipped", snapshotPath);
+				return;
+			}//end if
+
+			long restoredAt = System.currentTimeMillis();
+			int tokens = buffer.getInt();
+			for( int i = 0; i < tokens; i++ ) {
+				String token = readString( buffer );
+				buffer.getLong();
+				int count = buffer.getInt();
+				Set<String> channels = ConcurrentHashMap.newKeySet( count );
+				for( int j = 0; j < count; j++ ) {
+					channels.add( readString( buffer ) );
+				}//end for
+				states.put( token, new ResumeState( channels, restoredAt ) );
+			}//end for
+			log.info("Subscription snapshot restored with {} resume tokens", states.size());
+		} catch( IOException | RuntimeException e ) {
+			states.clear();
+			log.warn("Subscription snapshot {} couldn't be restored: {}", snapshotPath, e.getMessage());
+		}//end try
+	}//end restore()
+
+	@PreDestroy
+	public void shutdown() {
+		snapshot();
+	}//end shutdown()
+
+
+	private boolean isEnabled() {
+		return snapshotPath != null && !snapshotPath.isBlank();
+	}//end isEnabled()
+
+	private void expireTokens() {
+		if( tokenTtlMs <= 0 ) return;
+		long limit = System.currentTimeMillis() - tokenTtlMs;
+		for( String token : states.keySet() ) {
+			states.computeIfPresent( token, ( k, state ) -> {
+				if( state.bound.get() > 0 || state.lastSeen >= limit ) return state;
+				dirty.set( true );
+				return null;
+			});
+		}//end for
+	}//end expireTokens()
+
+	private static void writeString( DataOutputStream out, String value ) throws IOException {
+		byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+		out.writeInt( bytes.length );
+		out.write( bytes );
+	}//end writeString()
+
+	private static String readString( ByteBuffer buffer ) {
+		int length = buffer.getInt();
+		if( length < 0 || length > buffer.remaining() ) throw new BufferUnderflowException();
+		byte[] bytes = new byte[ length ];
+		buffer.get( bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}//end readString()
+
+	private static class ResumeState {
+
+		private final Set<String> channels;
+
+		private final AtomicInteger bound = new AtomicInteger( 0 );
+
+		private volatile long lastSeen;
+
+		ResumeState( Set<String> channels, long lastSeen ) {
+			this.channels = channels;
+			this.lastSeen = lastSeen;
+		}//end ResumeState()
+
+	}//end ResumeState
+
+}
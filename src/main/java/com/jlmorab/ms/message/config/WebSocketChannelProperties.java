@@ -0,0 +1,20 @@
+package com.jlmorab.ms.message.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.channel")
+public class WebSocketChannelProperties {
+
+	private Map<String, Long> ttlMs = new HashMap<>();
+
+	private Map<String, Integer> priority = new HashMap<>();
+
+}
@@ -0,0 +1,36 @@
+package com.jlmorab.ms.message.config;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.jlmorab.ms.enums.WebSocketActionEnum;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inbound broker frame: the fields defined by {@code WebSocketMessage} plus the
+ * optional ones a client may add, bound in a single pass.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WebSocketInboundFrame {
+
+	private WebSocketActionEnum action;
+	
+	private String channel;
+	
+	private String payload;
+	
+	private Long timestamp;
+
+	private Long ttl;
+	
+	private String resumeToken;
+	
+	private List<String> channels;
+	
+	private String filter;
+
+}
@@ -1,11 +1,14 @@
 package com.jlmorab.ms.message.config;
 
-import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,25 +18,56 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jlmorab.ms.enums.WebSocketActionEnum;
 import com.jlmorab.ms.message.WebSocketMessage;
+import com.jlmorab.ms.message.tracing.FanOutEvent;
+import com.jlmorab.ms.message.tracing.MessageParsedEvent;
+import com.jlmorab.ms.message.tracing.MessageReceivedEvent;
+import com.jlmorab.ms.message.tracing.MessageTracing;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class WebSocketMessageHandler extends TextWebSocketHandler {
 
+	private static final int CONTROL_LANE = 0;
+	
+	private final WebSocketChannelProperties channelProperties;
+	
+	private final SubscriptionSnapshotStore snapshotStore;
+	
+	private final MessageTracing tracing;
+
 	private final Map<String, Set<WebSocketSession>> channelSubscriptions = new ConcurrentHashMap<>();
 	
 	private final Map<String, Set<String>> sessionToChannels = new ConcurrentHashMap<>();
 	
-	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, SessionOutboundQueue> sessionQueues = new ConcurrentHashMap<>();
+	
+	private final Map<String, String> sessionTokens = new ConcurrentHashMap<>();
+	
+	private final Map<String, Map<String, PayloadFilter>> channelFilters = new ConcurrentHashMap<>();
+	
+	private final PayloadFilterRegistry filterRegistry = new PayloadFilterRegistry();
+	
+	private final ObjectMapper mapper = new ObjectMapper()
+			.configure( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false );
 	
 	@Value("${websocket.message.max-size:65536}")
     private int maxMessageSize;
 	
+	@Value("${websocket.outbound.lanes:3}")
+	private int outboundLanes;
+	
+	@Value("${websocket.outbound.lane-capacity:1024}")
+	private int laneCapacity;
+	
 	@Override
 	public void afterConnectionEstablished( WebSocketSession session ) throws Exception {
 		sessionToChannels.put( session.getId(), ConcurrentHashMap.newKeySet() );
@@ -42,6 +76,8 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 	
 	@Override
 	public void afterConnectionClosed( WebSocketSession session, CloseStatus status ) throws Exception {
+		sessionQueues.remove( session.getId() );
+		releaseToken( session.getId() );
 		Set<String> channels = sessionToChannels.remove( session.getId() );
 		if( channels != null ) {
 			for( String channel : channels ) {
@@ -52,6 +88,7 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 						channelSubscriptions.remove( channel );
 					}//end if
 				}//end if
+				clearFilter( session.getId(), channel );
 			}//end for
 		}//end if
 		log.debug("WebSocket connection closed: {}", session.getId());
@@ -59,64 +96,92 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 
 	@Override
 	protected void handleTextMessage( WebSocketSession session, TextMessage message ) throws Exception {
+		long traceId = tracing.sample();
+		MessageReceivedEvent received = new MessageReceivedEvent();
+		received.begin();
+		WebSocketInboundFrame frame = null;
 		try {
 			String messagePayload = message.getPayload();
 			if( messagePayload.length() > maxMessageSize ) {
 				String errorMessage = String.format("Message size exceeds maximum limit of %d bytes", maxMessageSize);
 				log.warn( errorMessage );
-				sendErrorMessage( session, errorMessage );
+				sendErrorMessage( session, errorMessage, traceId );
 				return;
 			}//end if
 			
-			WebSocketMessage webSocketMessage = parseMessage( messagePayload );
-			WebSocketActionEnum action = webSocketMessage.getAction();
-			String channel = webSocketMessage.getChannel();
-			String payload = webSocketMessage.getPayload();
+			MessageParsedEvent parsed = new MessageParsedEvent();
+			parsed.begin();
+			frame = mapper.readValue( messagePayload, WebSocketInboundFrame.class );
+			parsed.end();
+			if( tracing.shouldCommit( parsed, traceId ) ) {
+				parsed.traceId = traceId;
+				parsed.action = String.valueOf( frame.getAction() );
+				parsed.bytes = messagePayload.length();
+				parsed.commit();
+			}//end if
+			
+			WebSocketActionEnum action = frame.getAction();
+			String channel = frame.getChannel();
+			String payload = frame.getPayload();
 			
-			if( channel == null || channel.trim().isEmpty() ) {
+			boolean hasChannel = channel != null && !channel.trim().isEmpty();
+			String resumeToken = frame.getResumeToken();
+			boolean resuming = action == WebSocketActionEnum.SUBSCRIBE && resumeToken != null && !resumeToken.isBlank();
+			boolean batch = resuming || ( frame.getChannels() != null 
+					&& ( action == WebSocketActionEnum.SUBSCRIBE || action == WebSocketActionEnum.UNSUBSCRIBE ) );
+			Set<String> channels = requestedChannels( channel, frame.getChannels() );
+			if( batch ? channels.isEmpty() && !resuming : !hasChannel ) {
 				log.warn("Channel is required for action: {}", action);
-				sendErrorMessage( session, "Channel is required" );
+				sendErrorMessage( session, "Channel is required", traceId );
+				return;
+			}//end if
+			
+			if( action == WebSocketActionEnum.SEND && frame.getTtl() != null && frame.getTtl() <= 0 ) {
+				log.warn("Invalid TTL {} for channel {}", frame.getTtl(), channel);
+				sendErrorMessage( session, "TTL must be positive", traceId );
 				return;
 			}//end if
 			
 			switch( action ) {
-				case SUBSCRIBE -> subscribe( session, channel );
-				case UNSUBSCRIBE -> unsubscribe( session, channel );
-				case SEND -> sendToChannel( channel, payload );
+				case SUBSCRIBE -> {
+					PayloadFilter filter = compileFilter( frame.getFilter() );
+					if( batch ) subscribeAll( session, resuming ? resumeToken : null, channels, filter, traceId );
+					else subscribe( session, channel, filter, traceId );
+				}//end case
+				case UNSUBSCRIBE -> {
+					if( batch ) unsubscribeAll( session, channels, traceId );
+					else unsubscribe( session, channel, traceId );
+				}//end case
+				case SEND -> publish( channel, payload, frame.getTtl(), traceId );
 				default -> {
 					log.warn("Unknown action: {}", action);
-					sendErrorMessage( session, "Unknown action: " + action );
+					sendErrorMessage( session, "Unknown action: " + action, traceId );
 				}//end default
 			}//end switch
 		} catch( Exception e ) {
 			log.error("Error handling message: {}", e.getMessage(), e);
-			sendErrorMessage( session, String.format("Error handling message: %s", e.getMessage()) );
+			sendErrorMessage( session, String.format("Error handling message: %s", e.getMessage()), traceId );
+		} finally {
+			received.end();
+			if( tracing.shouldCommit( received, traceId ) ) {
+				received.traceId = traceId;
+				received.sessionId = session.getId();
+				received.bytes = message.getPayloadLength();
+				if( frame != null ) {
+					received.action = String.valueOf( frame.getAction() );
+					received.channel = frame.getChannel();
+				}//end if
+				received.commit();
+			}//end if
 		}//end try
 	}//end handleTextMessage()
 	
 	public void sendToChannel( String channel, String payload ) {
-		Set<WebSocketSession> subscribers = channelSubscriptions.getOrDefault( channel, Collections.emptySet() );
-		if( subscribers.isEmpty() ) {
-			log.debug("No subscribers for channel {}", channel);
-			return;
-		}//end if
-		
-		WebSocketMessage message = WebSocketMessage.builder()
-				.action( WebSocketActionEnum.MESSAGE )
-				.channel( channel )
-				.payload( payload )
-				.timestamp( System.currentTimeMillis() )
-				.build();
-		
-		subscribers.forEach( subscriber -> {
-			try {
-				sendMessage( subscriber, message );
-			} catch( IOException e ) {
-				log.error("Error sending message to session {}", subscriber.getId(), e);
-			}//end try
-		});//end forEach
-		
-		log.debug("Published message to channel {}", channel);
+		sendToChannel( channel, payload, null );
+	}//end sendToChannel()
+	
+	public void sendToChannel( String channel, String payload, Long ttl ) {
+		publish( channel, payload, ttl, tracing.sample() );
 	}//end sendToChannel()
 	
 	@Scheduled(fixedDelayString = "${websocket.cleanup.interval-ms:300000}")
@@ -130,7 +195,10 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 			
 			sessions.removeIf( session -> {
 				boolean inactive = !session.isOpen();
-				if( inactive ) inactiveSessions.add( session.getId() );
+				if( inactive ) {
+					inactiveSessions.add( session.getId() );
+					clearFilter( session.getId(), entry.getKey() );
+				}//end if
 				return inactive;
 			});
 			
@@ -141,22 +209,66 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 			cleaned += ( before - sessions.size() );
 		}//end for
 		
-		inactiveSessions.forEach( sessionToChannels::remove );
+		inactiveSessions.forEach( sessionId -> {
+			sessionToChannels.remove( sessionId );
+			sessionQueues.remove( sessionId );
+			releaseToken( sessionId );
+		});
 		
 		if(  cleaned > 0 )
 			log.debug("Cleaned up {} inactive WebSocket sessions", cleaned);
 	}//end cleanupInactiveSessions()
 	
 	
-	private void subscribe( WebSocketSession session, String channel ) throws IOException {
-		if( sessionToChannels.getOrDefault( session.getId(), Collections.emptySet() ).contains( channel ) ) {
-			log.debug("Session {} is already subscribed to {}", session.getId(), channel);
+	private void publish( String channel, String payload, Long ttl, long traceId ) {
+		FanOutEvent fanOut = new FanOutEvent();
+		fanOut.begin();
+		Set<WebSocketSession> subscribers = channelSubscriptions.getOrDefault( channel, Collections.emptySet() );
+		if( subscribers.isEmpty() ) {
+			log.debug("No subscribers for channel {}", channel);
+			commitFanOut( fanOut, traceId, channel, payload, 0, 0 );
 			return;
 		}//end if
 		
-		channelSubscriptions.computeIfAbsent( channel, k -> ConcurrentHashMap.newKeySet() ).add( session );
-		sessionToChannels.computeIfAbsent( session.getId(), k -> ConcurrentHashMap.newKeySet() ).add( channel );
-		log.debug("WebSocket session {} subscribed to channel {}", session.getId(), channel);
+		long timestamp = System.currentTimeMillis();
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.MESSAGE )
+				.channel( channel )
+				.payload( payload )
+				.timestamp( timestamp )
+				.build();
+		
+		OutboundFrame frame = new OutboundFrame( message, channelLane( channel ), 
+				expiresAt( channel, ttl, timestamp ), traceId,
+				( subscriber, e ) -> log.error("Error sending message to session {}", subscriber.getId(), e) );
+		
+		Map<String, PayloadFilter> filters = channelFilters.getOrDefault( channel, Collections.emptyMap() );
+		PayloadFilter.Evaluation evaluation = filters.isEmpty() ? null : new PayloadFilter.Evaluation( mapper, payload );
+		int delivered = 0;
+		for( WebSocketSession subscriber : subscribers ) {
+			PayloadFilter filter = evaluation == null ? null : filters.get( subscriber.getId() );
+			if( filter == null || evaluation.matches( filter ) ) {
+				sendMessage( subscriber, frame );
+				delivered++;
+			}//end if
+		}//end for
+		commitFanOut( fanOut, traceId, channel, payload, subscribers.size(), delivered );
+		
+		log.debug("Published message to channel {}", channel);
+	}//end publish()
+	
+	private void subscribe( WebSocketSession session, String channel, PayloadFilter filter, long traceId ) {
+		if( sessionToChannels.getOrDefault( session.getId(), Collections.emptySet() ).contains( channel ) ) {
+			if( sameFilter( currentFilter( session.getId(), channel ), filter ) ) {
+				log.debug("Session {} is already subscribed to {}", session.getId(), channel);
+				return;
+			}//end if
+			applyFilter( session.getId(), channel, filter );
+			log.debug("WebSocket session {} updated the filter of channel {}", session.getId(), channel);
+		} else {
+			applyFilter( session.getId(), channel, filter );
+			addSubscription( session, channel );
+		}//end if
 		
 		WebSocketMessage message = WebSocketMessage.builder()
 				.action( WebSocketActionEnum.SUBSCRIBED )
@@ -165,21 +277,89 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 				.timestamp( System.currentTimeMillis() )
 				.build();
 		
-		sendMessage( session, message );
+		sendControlMessage( session, message, traceId );
 	}//end subscribe()
 	
-	private void unsubscribe( WebSocketSession session, String channel ) throws IOException {
-		Set<WebSocketSession> subscribers = channelSubscriptions.get( channel );
-		if( subscribers != null ) {
-			subscribers.remove( session );
-			if( subscribers.isEmpty() ) {
-				channelSubscriptions.remove( channel );
-			}//end if
+	private void subscribeAll( WebSocketSession session, String token, Set<String> channels, PayloadFilter filter, long traceId ) throws JsonProcessingException {
+		Set<String> subscribed = new LinkedHashSet<>( channels );
+		if( token != null ) subscribed.addAll( bindToken( session, token ) );
+		
+		int added = 0;
+		for( String channel : subscribed ) {
+			applyFilter( session.getId(), channel, filter );
+			if( addSubscription( session, channel ) ) added++;
+		}//end for
+		log.debug("WebSocket session {} subscribed to {} of {} requested channels", session.getId(), added, subscribed.size());
+		
+		if( token != null ) {
+			Map<String, Object> resumed = new LinkedHashMap<>();
+			resumed.put( "resumeToken", sessionTokens.get( session.getId() ) );
+			resumed.put( "channels", subscribed );
+			sendAck( session, WebSocketActionEnum.SUBSCRIBED, resumed, traceId );
+		} else {
+			sendAck( session, WebSocketActionEnum.SUBSCRIBED, subscribed, traceId );
 		}//end if
+	}//end subscribeAll()
+	
+	private void unsubscribeAll( WebSocketSession session, Set<String> channels, long traceId ) throws JsonProcessingException {
+		channels.forEach( channel -> removeSubscription( session, channel ) );
+		log.debug("WebSocket session {} unsubscribed from {} channels", session.getId(), channels.size());
 		
-		Set<String> channels = sessionToChannels.get( session.getId() );
-		if( channels != null ) channels.remove( channel );
-		log.debug("WebSocket session {} unsubscribed from channel {}", session.getId(), channel);
+		sendAck( session, WebSocketActionEnum.UNSUBSCRIBED, channels, traceId );
+	}//end unsubscribeAll()
+	
+	private Set<String> bindToken( WebSocketSession session, String requested ) {
+		Set<String> resumed = snapshotStore.resume( requested );
+		String token = resumed != null ? requested : snapshotStore.issue();
+		Set<String> channels = resumed != null ? resumed : Collections.emptySet();
+		String previous = sessionTokens.put( session.getId(), token );
+		if( previous != null ) snapshotStore.release( previous );
+		sessionToChannels.getOrDefault( session.getId(), Collections.emptySet() )
+			.forEach( channel -> snapshotStore.addChannel( token, channel ) );
+		log.debug("WebSocket session {} resumed {} channels", session.getId(), channels.size());
+		return channels;
+	}//end bindToken()
+	
+	private Set<String> requestedChannels( String channel, List<String> channels ) {
+		Set<String> requested = new LinkedHashSet<>();
+		if( channel != null && !channel.trim().isEmpty() ) requested.add( channel );
+		if( channels != null ) {
+			channels.stream()
+				.filter( c -> c != null && !c.trim().isEmpty() )
+				.forEach( requested::add );
+		}//end if
+		return requested;
+	}//end requestedChannels()
+	
+	private boolean addSubscription( WebSocketSession session, String channel ) {
+		if( !sessionToChannels.computeIfAbsent( session.getId(), k -> ConcurrentHashMap.newKeySet() ).add( channel ) ) {
+			return false;
+		}//end if
+		
+		channelSubscriptions.computeIfAbsent( channel, k -> ConcurrentHashMap.newKeySet() ).add( session );
+		String token = sessionTokens.get( session.getId() );
+		if( token != null ) snapshotStore.addChannel( token, channel );
+		log.debug("WebSocket session {} subscribed to channel {}", session.getId(), channel);
+		return true;
+	}//end addSubscription()
+	
+	private void sendAck( WebSocketSession session, WebSocketActionEnum action, Object content, long traceId ) throws JsonProcessingException {
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( action )
+				.payload( mapper.writeValueAsString( content ) )
+				.timestamp( System.currentTimeMillis() )
+				.build();
+		
+		sendControlMessage( session, message, traceId );
+	}//end sendAck()
+	
+	private void releaseToken( String sessionId ) {
+		String token = sessionTokens.remove( sessionId );
+		if( token != null ) snapshotStore.release( token );
+	}//end releaseToken()
+	
+	private void unsubscribe( WebSocketSession session, String channel, long traceId ) {
+		removeSubscription( session, channel );
 		
 		WebSocketMessage message = WebSocketMessage.builder()
 				.action( WebSocketActionEnum.UNSUBSCRIBED )
@@ -188,32 +368,112 @@ public class WebSocketMessageHandler extends TextWebSocketHandler {
 				.timestamp( System.currentTimeMillis() )
 				.build();
 		
-		sendMessage( session, message );
+		sendControlMessage( session, message, traceId );
 	}//end unsubscribe()
 	
-	private WebSocketMessage parseMessage( String message ) throws IOException {
-		return mapper.readValue( message, WebSocketMessage.class );
-	}//end parseMessage()
+	private void removeSubscription( WebSocketSession session, String channel ) {
+		Set<WebSocketSession> subscribers = channelSubscriptions.get( channel );
+		if( subscribers != null ) {
+			subscribers.remove( session );
+			if( subscribers.isEmpty() ) {
+				channelSubscriptions.remove( channel );
+			}//end if
+		}//end if
+		clearFilter( session.getId(), channel );
+		
+		Set<String> channels = sessionToChannels.get( session.getId() );
+		if( channels != null ) channels.remove( channel );
+		String token = sessionTokens.get( session.getId() );
+		if( token != null ) snapshotStore.removeChannel( token, channel );
+		log.debug("WebSocket session {} unsubscribed from channel {}", session.getId(), channel);
+	}//end removeSubscription()
 	
-	private void sendMessage( WebSocketSession session, WebSocketMessage message ) throws IOException {
-		if( session.isOpen() ) {
-			String json = mapper.writeValueAsString( message );
-			session.sendMessage( new TextMessage( json ) );
+	private void commitFanOut( FanOutEvent fanOut, long traceId, String channel, String payload, int subscribers, int delivered ) {
+		fanOut.end();
+		if( tracing.shouldCommit( fanOut, traceId ) ) {
+			fanOut.traceId = traceId;
+			fanOut.channel = channel;
+			fanOut.subscribers = subscribers;
+			fanOut.delivered = delivered;
+			fanOut.bytes = payload == null ? 0 : payload.length();
+			fanOut.commit();
 		}//end if
+	}//end commitFanOut()
+	
+	private PayloadFilter compileFilter( String expression ) {
+		return expression == null || expression.isBlank() ? null : PayloadFilter.compile( expression );
+	}//end compileFilter()
+	
+	private PayloadFilter currentFilter( String sessionId, String channel ) {
+		return channelFilters.getOrDefault( channel, Collections.emptyMap() ).get( sessionId );
+	}//end currentFilter()
+	
+	private boolean sameFilter( PayloadFilter current, PayloadFilter requested ) {
+		return current == null ? requested == null : requested != null && current.getKey().equals( requested.getKey() );
+	}//end sameFilter()
+	
+	private void applyFilter( String sessionId, String channel, PayloadFilter compiled ) {
+		if( compiled == null ) {
+			clearFilter( sessionId, channel );
+			return;
+		}//end if
+		
+		PayloadFilter filter = filterRegistry.acquire( compiled );
+		AtomicReference<PayloadFilter> previous = new AtomicReference<>();
+		channelFilters.compute( channel, ( k, filters ) -> {
+			Map<String, PayloadFilter> current = filters == null ? new ConcurrentHashMap<>() : filters;
+			previous.set( current.put( sessionId, filter ) );
+			return current;
+		});
+		if( previous.get() != null ) filterRegistry.release( previous.get() );
+	}//end applyFilter()
+	
+	private void clearFilter( String sessionId, String channel ) {
+		AtomicReference<PayloadFilter> previous = new AtomicReference<>();
+		channelFilters.computeIfPresent( channel, ( k, filters ) -> {
+			previous.set( filters.remove( sessionId ) );
+			return filters.isEmpty() ? null : filters;
+		});
+		if( previous.get() != null ) filterRegistry.release( previous.get() );
+	}//end clearFilter()
+	
+	private int channelLane( String channel ) {
+		Integer priority = channelProperties.getPriority().get( channel );
+		int bulkLane = laneCount() - 1;
+		return priority == null ? bulkLane : Math.max( CONTROL_LANE + 1, Math.min( bulkLane, priority ) );
+	}//end channelLane()
+	
+	private long expiresAt( String channel, Long ttl, long timestamp ) {
+		Long effectiveTtl = ttl != null && ttl > 0 ? ttl : channelProperties.getTtlMs().get( channel );
+		if( effectiveTtl == null || effectiveTtl <= 0 ) return OutboundFrame.NO_EXPIRATION;
+		return effectiveTtl >= OutboundFrame.NO_EXPIRATION - timestamp ? OutboundFrame.NO_EXPIRATION : timestamp + effectiveTtl;
+	}//end expiresAt()
+	
+	private int laneCount() {
+		return Math.max( CONTROL_LANE + 2, outboundLanes );
+	}//end laneCount()
+	
+	private void sendControlMessage( WebSocketSession session, WebSocketMessage message, long traceId ) {
+		sendMessage( session, new OutboundFrame( message, CONTROL_LANE, OutboundFrame.NO_EXPIRATION, traceId,
+				( s, e ) -> log.error("Error sending message to session {}", s.getId(), e) ) );
+	}//end sendControlMessage()
+	
+	private void sendMessage( WebSocketSession session, OutboundFrame frame ) {
+		if( !session.isOpen() ) return;
+		sessionQueues.computeIfAbsent( session.getId(), 
+				k -> new SessionOutboundQueue( session, mapper, tracing, laneCount(), laneCapacity ) )
+			.offer( frame );
 	}//end sendMessage()
 	
-	private void sendErrorMessage( WebSocketSession session, String errorMessage ) {
-		try {
-			WebSocketMessage message = WebSocketMessage.builder()
-					.action( WebSocketActionEnum.ERROR )
-					.payload( errorMessage )
-					.timestamp( System.currentTimeMillis() )
-					.build();
-			
-			sendMessage( session, message );
-		} catch( Exception e ) {
-			log.error("The error message couldn't be sent: {}", e.getMessage(), e);
-		}//end try
+	private void sendErrorMessage( WebSocketSession session, String errorMessage, long traceId ) {
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.ERROR )
+				.payload( errorMessage )
+				.timestamp( System.currentTimeMillis() )
+				.build();
+		
+		sendMessage( session, new OutboundFrame( message, CONTROL_LANE, OutboundFrame.NO_EXPIRATION, traceId,
+				( s, e ) -> log.error("The error message couldn't be sent: {}", e.getMessage(), e) ) );
 	}//end sendErrorMessage()
 
 }
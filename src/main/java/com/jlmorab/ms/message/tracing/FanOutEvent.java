@@ -0,0 +1,40 @@
+package com.jlmorab.ms.message.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(FanOutEvent.NAME)
+@Label("Message Fan-Out")
+@Description("Publication of a message to a channel, from subscriber lookup to the last session queued")
+@Category({ "Message Broker" })
+@Enabled(false)
+@StackTrace(false)
+public class FanOutEvent extends Event {
+
+	public static final String NAME = "com.jlmorab.ms.message.FanOut";
+
+	@Label("Trace Id")
+	@Description("Identifier shared by every event of the same message")
+	public long traceId;
+
+	@Label("Channel")
+	public String channel;
+
+	@Label("Subscribers")
+	public int subscribers;
+
+	@Label("Delivered")
+	@Description("Subscribers left after payload filters")
+	public int delivered;
+
+	@Label("Payload Bytes")
+	@DataAmount
+	public long bytes;
+
+}
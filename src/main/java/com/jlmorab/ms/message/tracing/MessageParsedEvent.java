@@ -0,0 +1,33 @@
+package com.jlmorab.ms.message.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(MessageParsedEvent.NAME)
+@Label("Message Parsed")
+@Description("JSON parsing of an inbound broker frame")
+@Category({ "Message Broker" })
+@Enabled(false)
+@StackTrace(false)
+public class MessageParsedEvent extends Event {
+
+	public static final String NAME = "com.jlmorab.ms.message.Parse";
+
+	@Label("Trace Id")
+	@Description("Identifier shared by every event of the same message")
+	public long traceId;
+
+	@Label("Action")
+	public String action;
+
+	@Label("Bytes")
+	@DataAmount
+	public long bytes;
+
+}
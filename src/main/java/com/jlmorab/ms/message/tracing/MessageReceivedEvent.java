@@ -0,0 +1,39 @@
+package com.jlmorab.ms.message.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(MessageReceivedEvent.NAME)
+@Label("Message Received")
+@Description("Handling of an inbound broker frame, from receive to dispatch")
+@Category({ "Message Broker" })
+@Enabled(false)
+@StackTrace(false)
+public class MessageReceivedEvent extends Event {
+
+	public static final String NAME = "com.jlmorab.ms.message.Receive";
+
+	@Label("Trace Id")
+	@Description("Identifier shared by every event of the same message")
+	public long traceId;
+
+	@Label("Session Id")
+	public String sessionId;
+
+	@Label("Action")
+	public String action;
+
+	@Label("Channel")
+	public String channel;
+
+	@Label("Bytes")
+	@DataAmount
+	public long bytes;
+
+}
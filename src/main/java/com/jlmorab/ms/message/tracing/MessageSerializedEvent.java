@@ -0,0 +1,36 @@
+package com.jlmorab.ms.message.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(MessageSerializedEvent.NAME)
+@Label("Message Serialized")
+@Description("JSON serialization of an outbound frame, done once per frame")
+@Category({ "Message Broker" })
+@Enabled(false)
+@StackTrace(false)
+public class MessageSerializedEvent extends Event {
+
+	public static final String NAME = "com.jlmorab.ms.message.Serialize";
+
+	@Label("Trace Id")
+	@Description("Identifier shared by every event of the same message")
+	public long traceId;
+
+	@Label("Action")
+	public String action;
+
+	@Label("Channel")
+	public String channel;
+
+	@Label("Bytes")
+	@DataAmount
+	public long bytes;
+
+}
@@ -0,0 +1,59 @@
+package com.jlmorab.ms.message.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Event;
+
+/**
+ * Decides which flight recorder events are committed. Events are disabled by
+ * default and enabled at runtime by starting a recording with the
+ * {@code jfr/message-tracing.jfc} settings.
+ * <p>
+ * Sampling is decided once per inbound frame or publication: every event of a
+ * sampled message carries the same trace id, and a message that isn't sampled
+ * commits none. The ratio can be changed at runtime through JMX.
+ */
+@Component
+@ManagedResource(objectName = "com.jlmorab.ms.message:type=MessageTracing", 
+		description = "Flight recorder sampling of broker messages")
+public class MessageTracing {
+
+	public static final long NOT_SAMPLED = 0L;
+
+	private volatile double sampleRatio = 1.0;
+
+	/**
+	 * Returns the trace id for a new message, {@link #NOT_SAMPLED} when its
+	 * events must not be committed.
+	 */
+	public long sample() {
+		double ratio = sampleRatio;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		if( ratio <= 0.0 || ( ratio < 1.0 && random.nextDouble() >= ratio ) ) return NOT_SAMPLED;
+		return random.nextLong( 1L, Long.MAX_VALUE );
+	}//end sample()
+
+	public boolean shouldCommit( Event event, long traceId ) {
+		return traceId != NOT_SAMPLED && event.shouldCommit();
+	}//end shouldCommit()
+
+	@ManagedAttribute(description = "Ratio between 0 and 1 of messages whose events are committed")
+	public double getSampleRatio() {
+		return sampleRatio;
+	}//end getSampleRatio()
+
+	@ManagedAttribute
+	@Value("${websocket.tracing.sample-ratio:1.0}")
+	public void setSampleRatio( double sampleRatio ) {
+		if( !( sampleRatio >= 0.0 && sampleRatio <= 1.0 ) ) {
+			throw new IllegalArgumentException("Sample ratio must be between 0 and 1");
+		}//end if
+		this.sampleRatio = sampleRatio;
+	}//end setSampleRatio()
+
+}
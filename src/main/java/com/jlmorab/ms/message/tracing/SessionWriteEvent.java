@@ -0,0 +1,48 @@
+package com.jlmorab.ms.message.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name(SessionWriteEvent.NAME)
+@Label("Session Write")
+@Description("Socket write of an outbound frame to one session")
+@Category({ "Message Broker" })
+@Enabled(false)
+@StackTrace(false)
+public class SessionWriteEvent extends Event {
+
+	public static final String NAME = "com.jlmorab.ms.message.SessionWrite";
+
+	@Label("Trace Id")
+	@Description("Identifier shared by every event of the same message")
+	public long traceId;
+
+	@Label("Session Id")
+	public String sessionId;
+
+	@Label("Action")
+	public String action;
+
+	@Label("Channel")
+	public String channel;
+
+	@Label("Lane")
+	public int lane;
+
+	@Label("Bytes")
+	@DataAmount
+	public long bytes;
+
+	@Label("Queued Time")
+	@Description("Time the frame waited in the session lanes")
+	@Timespan(Timespan.NANOSECONDS)
+	public long queued;
+
+}
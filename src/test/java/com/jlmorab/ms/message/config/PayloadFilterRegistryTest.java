@@ -0,0 +1,36 @@
+package com.jlmorab.ms.message.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class PayloadFilterRegistryTest {
+
+	PayloadFilterRegistry registry = new PayloadFilterRegistry();
+
+	@Test
+	void acquire_withEquivalentExpressions_shouldBeShareFilter() {
+		PayloadFilter first = registry.acquire( PayloadFilter.compile("price > 10") );
+		PayloadFilter second = registry.acquire( PayloadFilter.compile("price>10.0") );
+		PayloadFilter other = registry.acquire( PayloadFilter.compile("price > 20") );
+		
+		assertSame( first, second );
+		assertNotSame( first, other );
+		assertEquals( 2, registry.size() );
+	}//end acquire_withEquivalentExpressions_shouldBeShareFilter()
+	
+	@Test
+	void release_withLastReference_shouldBeRemoveFilter() {
+		PayloadFilter first = registry.acquire( PayloadFilter.compile("price > 10") );
+		PayloadFilter second = registry.acquire( PayloadFilter.compile("price > 10") );
+		
+		registry.release( first );
+		assertEquals( 1, registry.size() );
+		registry.release( second );
+		
+		assertEquals( 0, registry.size() );
+	}//end release_withLastReference_shouldBeRemoveFilter()
+
+}
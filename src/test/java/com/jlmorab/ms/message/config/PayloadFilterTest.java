@@ -0,0 +1,88 @@
+package com.jlmorab.ms.message.config;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PayloadFilterTest {
+
+	private static final String PAYLOAD = """
+			{"symbol":"EURUSD","quote":{"bid":1.0845,"ask":1.0847},"active":true,"venue":null,"tags":["fx","spot"]}
+			""";
+
+	static ObjectMapper objectMapper = new ObjectMapper();
+
+	static JsonNode payload;
+
+	@BeforeAll
+	static void beforeAll() throws Exception {
+		payload = objectMapper.readTree( PAYLOAD );
+	}//end beforeAll()
+
+	@ParameterizedTest
+	@CsvSource(delimiter = ';', quoteCharacter = '`', value = {
+		"symbol == 'EURUSD'; true",
+		"symbol != \"EURUSD\"; false",
+		"symbol > 'EUR'; true",
+		"quote.bid >= 1.08; true",
+		"quote.bid < 1; false",
+		"quote.ask <= 1.0847; true",
+		"active == true; true",
+		"active != true; false",
+		"venue == null; true",
+		"missing == null; true",
+		"missing != null; false",
+		"missing > 1; false",
+		"tags.0 == 'fx'; true",
+		"symbol == 1; false",
+		"quote.bid > 2 && active == true; false",
+		"quote.bid > 2 || active == true; true",
+		"symbol == 'GBPUSD' || quote.bid > 1 && active == false; false"
+	})
+	void matches_withExpression_shouldBeEvaluatePayload( String expression, boolean expected ) {
+		assertEquals( expected, PayloadFilter.compile( expression ).matches( payload ) );
+	}//end matches_withExpression_shouldBeEvaluatePayload()
+
+	@ParameterizedTest
+	@ValueSource(strings = { " ", "symbol", "symbol ==", "== 1", "symbol = 1", "symbol == 'EUR", 
+			"active > true", "quote..bid == 1", "symbol == EUR", "symbol == 1 &&", "symbol == 1 )",
+			"a > 1e999999999", "a > -1e400" })
+	void compile_withInvalidExpression_shouldBeThrowException( String expression ) {
+		assertThatThrownBy( () -> PayloadFilter.compile( expression ) )
+			.isInstanceOf( IllegalArgumentException.class )
+			.hasMessageStartingWith("Invalid filter");
+	}//end compile_withInvalidExpression_shouldBeThrowException()
+
+	@Test
+	void compile_withEquivalentExpressions_shouldBeHaveSameKey() {
+		assertEquals( PayloadFilter.compile("quote.bid>1&&symbol=='EURUSD'").getKey(),
+				PayloadFilter.compile("quote.bid  >  1 && symbol == \"EURUSD\"").getKey() );
+	}//end compile_withEquivalentExpressions_shouldBeHaveSameKey()
+
+	@Test
+	void compile_withEquivalentNumbers_shouldBeHaveSameKey() {
+		assertEquals( PayloadFilter.compile("price > 10").getKey(), PayloadFilter.compile("price > 10.0").getKey() );
+		assertEquals( PayloadFilter.compile("price > 1000").getKey(), PayloadFilter.compile("price > 1E+3").getKey() );
+		assertEquals( PayloadFilter.compile("price > 0.001").getKey(), PayloadFilter.compile("price > 1e-3").getKey() );
+		assertEquals( "price > 1E+300", PayloadFilter.compile("price > 1e300").getKey() );
+	}//end compile_withEquivalentNumbers_shouldBeHaveSameKey()
+
+	@Test
+	void evaluation_withInvalidJsonPayload_shouldBeTreatFieldsAsMissing() {
+		PayloadFilter.Evaluation evaluation = new PayloadFilter.Evaluation( objectMapper, "not json" );
+		
+		assertTrue( evaluation.matches( PayloadFilter.compile("symbol == null") ) );
+		assertFalse( evaluation.matches( PayloadFilter.compile("symbol == 'EURUSD'") ) );
+	}//end evaluation_withInvalidJsonPayload_shouldBeTreatFieldsAsMissing()
+
+}
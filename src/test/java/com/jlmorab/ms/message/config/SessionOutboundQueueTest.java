@@ -0,0 +1,167 @@
+package com.jlmorab.ms.message.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlmorab.ms.enums.WebSocketActionEnum;
+import com.jlmorab.ms.message.WebSocketMessage;
+import com.jlmorab.ms.message.tracing.MessageTracing;
+
+@ExtendWith(MockitoExtension.class)
+class SessionOutboundQueueTest {
+
+	private static final String ANY_TEXT = UUID.randomUUID().toString();
+	private static final String CONTROL_CHANNEL = "control";
+	private static final String BULK_CHANNEL = "bulk";
+	private static final int LANES = 3;
+	private static final int LANE_CAPACITY = 2;
+
+	static ObjectMapper objectMapper = new ObjectMapper();
+
+	SessionOutboundQueue queue;
+
+	@Mock
+	WebSocketSession session;
+
+	@Captor
+	ArgumentCaptor<TextMessage> textMessageCaptor;
+
+	@BeforeEach
+	void setUp() {
+		lenient().when( session.getId() ).thenReturn( ANY_TEXT );
+		queue = new SessionOutboundQueue( session, objectMapper, new MessageTracing(), LANES, LANE_CAPACITY );
+	}//end setUp()
+
+	@Test
+	void offer_withOpenSession_shouldBeWriteMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+
+		queue.offer( frame( BULK_CHANNEL, LANES - 1, OutboundFrame.NO_EXPIRATION, null ) );
+
+		verify( session ).sendMessage( textMessageCaptor.capture() );
+		assertThat( textMessageCaptor.getValue().getPayload() ).contains( BULK_CHANNEL );
+		assertThat( queue.size() ).isZero();
+	}//end offer_withOpenSession_shouldBeWriteMessage()
+
+	@Test
+	void offer_withExpiredFrame_doesNotWriteMessage() throws Exception {
+		queue.offer( frame( BULK_CHANNEL, LANES - 1, System.currentTimeMillis() - 1, null ) );
+
+		verify( session, never() ).sendMessage( any(TextMessage.class) );
+		assertThat( queue.size() ).isZero();
+	}//end offer_withExpiredFrame_doesNotWriteMessage()
+
+	@Test
+	void offer_whileSessionIsBusy_shouldBeWriteMostUrgentLaneFirst() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		List<String> written = new ArrayList<>();
+		AtomicBoolean first = new AtomicBoolean( true );
+		doAnswer( invocation -> {
+			written.add( invocation.getArgument( 0, TextMessage.class ).getPayload() );
+			if( first.getAndSet( false ) ) {
+				queue.offer( frame( BULK_CHANNEL, LANES - 1, OutboundFrame.NO_EXPIRATION, null ) );
+				queue.offer( frame( CONTROL_CHANNEL, 0, OutboundFrame.NO_EXPIRATION, null ) );
+			}//end if
+			return null;
+		}).when( session ).sendMessage( any(TextMessage.class) );
+
+		queue.offer( frame( BULK_CHANNEL, LANES - 1, OutboundFrame.NO_EXPIRATION, null ) );
+
+		verify( session, times( 3 ) ).sendMessage( any(TextMessage.class) );
+		assertThat( written ).hasSize( 3 );
+		assertThat( written.get( 1 ) ).contains( CONTROL_CHANNEL );
+		assertThat( written.get( 2 ) ).contains( BULK_CHANNEL );
+	}//end offer_whileSessionIsBusy_shouldBeWriteMostUrgentLaneFirst()
+
+	@Test
+	void offer_whenWriteFails_shouldBeNotifyFailureHandler() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		doThrow( new IOException("Error sending message") )
+			.when( session ).sendMessage( any(TextMessage.class) );
+		AtomicReference<IOException> failure = new AtomicReference<>();
+
+		queue.offer( frame( BULK_CHANNEL, LANES - 1, OutboundFrame.NO_EXPIRATION,
+				( s, e ) -> failure.set( e ) ) );
+
+		assertThat( failure.get() ).hasMessage("Error sending message");
+	}//end offer_whenWriteFails_shouldBeNotifyFailureHandler()
+
+	@Test
+	void offer_whenBulkLaneIsFull_shouldBeDropOldestFrames() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		List<String> written = new ArrayList<>();
+		AtomicBoolean first = new AtomicBoolean( true );
+		doAnswer( invocation -> {
+			written.add( invocation.getArgument( 0, TextMessage.class ).getPayload() );
+			if( first.getAndSet( false ) ) {
+				for( int i = 0; i < LANE_CAPACITY + 3; i++ ) {
+					queue.offer( frame( BULK_CHANNEL + i, LANES - 1, OutboundFrame.NO_EXPIRATION, null ) );
+				}//end for
+				assertThat( queue.size() ).isEqualTo( LANE_CAPACITY );
+			}//end if
+			return null;
+		}).when( session ).sendMessage( any(TextMessage.class) );
+
+		queue.offer( frame( BULK_CHANNEL, LANES - 1, OutboundFrame.NO_EXPIRATION, null ) );
+
+		assertThat( written ).hasSize( 1 + LANE_CAPACITY );
+		assertThat( written.get( 1 ) ).contains( BULK_CHANNEL + 3 );
+		assertThat( written.get( 2 ) ).contains( BULK_CHANNEL + 4 );
+		assertThat( queue.size() ).isZero();
+	}//end offer_whenBulkLaneIsFull_shouldBeDropOldestFrames()
+
+	@Test
+	void offer_whenControlLaneExceedsCapacity_shouldBeKeepEveryFrame() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		AtomicBoolean first = new AtomicBoolean( true );
+		doAnswer( invocation -> {
+			if( first.getAndSet( false ) ) {
+				for( int i = 0; i < LANE_CAPACITY + 3; i++ ) {
+					queue.offer( frame( CONTROL_CHANNEL, 0, OutboundFrame.NO_EXPIRATION, null ) );
+				}//end for
+			}//end if
+			return null;
+		}).when( session ).sendMessage( any(TextMessage.class) );
+
+		queue.offer( frame( CONTROL_CHANNEL, 0, OutboundFrame.NO_EXPIRATION, null ) );
+
+		verify( session, times( LANE_CAPACITY + 4 ) ).sendMessage( any(TextMessage.class) );
+	}//end offer_whenControlLaneExceedsCapacity_shouldBeKeepEveryFrame()
+
+
+	private OutboundFrame frame( String channel, int lane, long expiresAt, OutboundFrame.FailureHandler failureHandler ) {
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.MESSAGE )
+				.channel( channel )
+				.payload( ANY_TEXT )
+				.timestamp( System.currentTimeMillis() )
+				.build();
+		return new OutboundFrame( message, lane, expiresAt, MessageTracing.NOT_SAMPLED, failureHandler );
+	}//end frame()
+
+}
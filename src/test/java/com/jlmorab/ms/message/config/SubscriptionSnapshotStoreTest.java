@@ -0,0 +1,204 @@
+package com.jlmorab.ms.message.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jlmorab.ms.utils.LoggerHelper;
+
+class SubscriptionSnapshotStoreTest {
+
+	private static final String TOKEN = "client-token";
+	private static final String CHANNEL_ONE = "channel-one";
+	private static final String CHANNEL_TWO = "channel-two";
+	private static final long TOKEN_TTL_MS = 86400000L;
+
+	LoggerHelper loggerHelper = LoggerHelper.getInstance();
+
+	@TempDir
+	Path directory;
+
+	Path snapshotFile;
+
+	SubscriptionSnapshotStore store;
+
+	@BeforeEach
+	void setUp() {
+		snapshotFile = directory.resolve("subscriptions.snapshot");
+		store = newStore( snapshotFile.toString(), TOKEN_TTL_MS );
+		loggerHelper.initCapture();
+	}//end setUp()
+
+	@AfterEach
+	void tearDown() {
+		loggerHelper.release();
+	}//end tearDown()
+
+	@Test
+	void resume_withUnknownToken_shouldBeReturnNull() {
+		assertThat( store.resume( TOKEN ) ).isNull();
+	}//end resume_withUnknownToken_shouldBeReturnNull()
+
+	@Test
+	void issue_shouldBeReturnDistinctBoundTokens() {
+		String first = store.issue();
+		String second = store.issue();
+
+		assertThat( first ).isNotEqualTo( second ).hasSizeGreaterThanOrEqualTo( 22 );
+		assertThat( store.resume( first ) ).isEmpty();
+	}//end issue_shouldBeReturnDistinctBoundTokens()
+
+	@Test
+	void snapshot_andRestore_shouldBeRecoverChannels() {
+		String token = store.issue();
+		store.addChannel( token, CHANNEL_ONE );
+		store.addChannel( token, CHANNEL_TWO );
+		store.removeChannel( token, CHANNEL_TWO );
+
+		store.snapshot();
+
+		SubscriptionSnapshotStore restored = newStore( snapshotFile.toString(), TOKEN_TTL_MS );
+		restored.restore();
+		assertThat( restored.resume( token ) ).containsExactly( CHANNEL_ONE );
+		assertThat( loggerHelper.getOutContent() )
+			.contains("Subscription snapshot restored with 1 resume tokens");
+	}//end snapshot_andRestore_shouldBeRecoverChannels()
+
+	@Test
+	void snapshot_withExistingFile_shouldBeReplaceSnapshot() {
+		String token = store.issue();
+		store.addChannel( token, CHANNEL_ONE );
+		store.snapshot();
+
+		SubscriptionSnapshotStore restored = newStore( snapshotFile.toString(), TOKEN_TTL_MS );
+		restored.restore();
+		restored.resume( token );
+		restored.addChannel( token, CHANNEL_TWO );
+		restored.snapshot();
+
+		SubscriptionSnapshotStore replaced = newStore( snapshotFile.toString(), TOKEN_TTL_MS );
+		replaced.restore();
+		assertThat( replaced.resume( token ) ).containsExactlyInAnyOrder( CHANNEL_ONE, CHANNEL_TWO );
+	}//end snapshot_withExistingFile_shouldBeReplaceSnapshot()
+
+	@Test
+	void restore_withOldLastUse_shouldBeKeepTokenOnNextSnapshot() throws Exception {
+		try( DataOutputStream out = new DataOutputStream( Files.newOutputStream( snapshotFile ) ) ) {
+			out.writeInt( SubscriptionSnapshotStore.MAGIC );
+			out.writeInt( SubscriptionSnapshotStore.VERSION );
+			out.writeInt( 1 );
+			writeString( out, TOKEN );
+			out.writeLong( 0L );
+			out.writeInt( 1 );
+			writeString( out, CHANNEL_ONE );
+		}//end try
+
+		store.restore();
+		store.snapshot();
+
+		assertThat( store.channelsOf( TOKEN ) ).containsExactly( CHANNEL_ONE );
+	}//end restore_withOldLastUse_shouldBeKeepTokenOnNextSnapshot()
+
+	@Test
+	void snapshot_withoutChanges_doesNotWriteFile() {
+		store.snapshot();
+
+		assertThat( snapshotFile ).doesNotExist();
+	}//end snapshot_withoutChanges_doesNotWriteFile()
+
+	@Test
+	void snapshot_withoutPath_doesNotWriteFile() {
+		store = newStore( "", TOKEN_TTL_MS );
+		store.issue();
+
+		store.snapshot();
+		store.restore();
+
+		assertThat( directory ).isEmptyDirectory();
+	}//end snapshot_withoutPath_doesNotWriteFile()
+
+	@Test
+	void snapshot_withReleasedExpiredToken_shouldBeDiscardToken() throws Exception {
+		store = newStore( snapshotFile.toString(), 1L );
+		String token = store.issue();
+		store.addChannel( token, CHANNEL_ONE );
+		store.release( token );
+		Thread.sleep( 10L );
+
+		store.snapshot();
+
+		assertThat( store.channelsOf( token ) ).isEmpty();
+	}//end snapshot_withReleasedExpiredToken_shouldBeDiscardToken()
+
+	@Test
+	void snapshot_withBoundExpiredToken_shouldBeKeepToken() throws Exception {
+		store = newStore( snapshotFile.toString(), 1L );
+		String token = store.issue();
+		store.addChannel( token, CHANNEL_ONE );
+		Thread.sleep( 10L );
+
+		store.snapshot();
+
+		assertThat( store.channelsOf( token ) ).containsExactly( CHANNEL_ONE );
+		assertThat( snapshotFile ).exists();
+	}//end snapshot_withBoundExpiredToken_shouldBeKeepToken()
+
+	@Test
+	void resume_withExpiredToken_shouldBeKeepTrackingChannels() throws Exception {
+		store = newStore( snapshotFile.toString(), 1L );
+		String token = store.issue();
+		store.release( token );
+		Thread.sleep( 10L );
+
+		store.resume( token );
+		store.snapshot();
+		store.addChannel( token, CHANNEL_ONE );
+
+		assertThat( store.channelsOf( token ) ).containsExactly( CHANNEL_ONE );
+	}//end resume_withExpiredToken_shouldBeKeepTrackingChannels()
+
+	@Test
+	void restore_withCorruptFile_shouldBeSkipSnapshot() throws Exception {
+		Files.write( snapshotFile, new byte[] { 1, 2, 3 } );
+
+		store.restore();
+
+		assertThat( store.channelsOf( TOKEN ) ).isEmpty();
+		assertThat( loggerHelper.getOutContent() )
+			.contains("couldn't be restored");
+	}//end restore_withCorruptFile_shouldBeSkipSnapshot()
+
+	@Test
+	void restore_withUnknownFormat_shouldBeSkipSnapshot() throws Exception {
+		Files.write( snapshotFile, new byte[] { 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0 } );
+
+		store.restore();
+
+		assertThat( loggerHelper.getOutContent() )
+			.contains("has an unknown format");
+	}//end restore_withUnknownFormat_shouldBeSkipSnapshot()
+
+
+	private void writeString( DataOutputStream out, String value ) throws Exception {
+		byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+		out.writeInt( bytes.length );
+		out.write( bytes );
+	}//end writeString()
+
+	private SubscriptionSnapshotStore newStore( String path, long tokenTtlMs ) {
+		SubscriptionSnapshotStore snapshotStore = new SubscriptionSnapshotStore();
+		ReflectionTestUtils.setField( snapshotStore, "snapshotPath", path );
+		ReflectionTestUtils.setField( snapshotStore, "tokenTtlMs", tokenTtlMs );
+		return snapshotStore;
+	}//end newStore()
+
+}
@@ -4,26 +4,35 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -33,13 +42,24 @@ import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jlmorab.ms.data.TestData;
 import com.jlmorab.ms.enums.WebSocketActionEnum;
 import com.jlmorab.ms.message.WebSocketMessage;
+import com.jlmorab.ms.message.tracing.FanOutEvent;
+import com.jlmorab.ms.message.tracing.MessageParsedEvent;
+import com.jlmorab.ms.message.tracing.MessageReceivedEvent;
+import com.jlmorab.ms.message.tracing.MessageSerializedEvent;
+import com.jlmorab.ms.message.tracing.MessageTracing;
+import com.jlmorab.ms.message.tracing.SessionWriteEvent;
 import com.jlmorab.ms.utils.LoggerHelper;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -51,11 +71,20 @@ class WebSocketMessageHandlerTest {
 	private static final String CHANNEL_ONE = "channel-one";
 	private static final String CHANNEL_TWO = "channel-two";
 	private static final int MAX_MESSAGE_SIZE = 65536;
+	private static final int OUTBOUND_LANES = 3;
+	private static final int LANE_CAPACITY = 16;
+	private static final String RESUME_TOKEN = "client-token";
 	
 	LoggerHelper loggerHelper = LoggerHelper.getInstance();
 	
 	WebSocketMessageHandler handler;
 	
+	WebSocketChannelProperties channelProperties;
+	
+	SubscriptionSnapshotStore snapshotStore;
+	
+	MessageTracing tracing;
+	
 	Map<String, Set<WebSocketSession>> channelSubscriptions;
 	
 	Map<String, Set<String>> sessionToChannels;
@@ -82,12 +111,17 @@ class WebSocketMessageHandlerTest {
 	@BeforeEach
 	void setUp() {
 		lenient().when( session.getId() ).thenReturn( ANY_TEXT );
-		handler = new WebSocketMessageHandler();
+		channelProperties = new WebSocketChannelProperties();
+		snapshotStore = new SubscriptionSnapshotStore();
+		tracing = new MessageTracing();
+		handler = new WebSocketMessageHandler( channelProperties, snapshotStore, tracing );
 		channelSubscriptions = (Map<String, Set<WebSocketSession>>) 
 				ReflectionTestUtils.getField( handler, "channelSubscriptions" );
 		sessionToChannels = (Map<String, Set<String>>) 
 				ReflectionTestUtils.getField( handler, "sessionToChannels" );
 		ReflectionTestUtils.setField( handler, "maxMessageSize", MAX_MESSAGE_SIZE );
+		ReflectionTestUtils.setField( handler, "outboundLanes", OUTBOUND_LANES );
+		ReflectionTestUtils.setField( handler, "laneCapacity", LANE_CAPACITY );
 		loggerHelper.initCapture();
 	}//end setUp()
 	
@@ -246,6 +280,249 @@ class WebSocketMessageHandlerTest {
 			.contains("Session " + ANY_TEXT + " is already subscribed to " + CHANNEL_ONE);
 	}//end handleTextMessage_withSubscribeActionWhenSessionAlredySubscribed_shouldBeSkipSubscribeAgain()
 	
+	@Test
+	void handleTextMessage_withUnknownResumeToken_shouldBeIssueNewToken() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "resumeToken", RESUME_TOKEN );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.SUBSCRIBED, actual.getAction() );
+		JsonNode ack = objectMapper.readTree( actual.getPayload() );
+		String issued = ack.get("resumeToken").asText();
+		assertThat( issued ).isNotEqualTo( RESUME_TOKEN );
+		assertThat( ack.get("channels").get( 0 ).asText() ).isEqualTo( CHANNEL_ONE );
+		assertThat( snapshotStore.channelsOf( issued ) ).containsExactly( CHANNEL_ONE );
+		assertThat( snapshotStore.channelsOf( RESUME_TOKEN ) ).isEmpty();
+		assertThat( channelSubscriptions ).containsKey( CHANNEL_ONE );
+	}//end handleTextMessage_withUnknownResumeToken_shouldBeIssueNewToken()
+	
+	@Test
+	void handleTextMessage_withKnownResumeToken_shouldBeRestoreChannelsWithSingleAck() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		String token = snapshotStore.issue();
+		snapshotStore.addChannel( token, CHANNEL_ONE );
+		snapshotStore.addChannel( token, CHANNEL_TWO );
+		snapshotStore.release( token );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "resumeToken", token );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.SUBSCRIBED, actual.getAction() );
+		JsonNode ack = objectMapper.readTree( actual.getPayload() );
+		assertEquals( token, ack.get("resumeToken").asText() );
+		assertThat( objectMapper.treeToValue( ack.get("channels"), List.class ) )
+			.containsExactlyInAnyOrder( CHANNEL_ONE, CHANNEL_TWO );
+		assertThat( channelSubscriptions ).containsKeys( CHANNEL_ONE, CHANNEL_TWO );
+		assertThat( sessionToChannels.get( ANY_TEXT ) ).containsExactlyInAnyOrder( CHANNEL_ONE, CHANNEL_TWO );
+	}//end handleTextMessage_withKnownResumeToken_shouldBeRestoreChannelsWithSingleAck()
+	
+	@Test
+	void handleTextMessage_withUnsubscribeActionAndResumeToken_shouldBeRemoveChannelFromToken() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		String token = snapshotStore.issue();
+		snapshotStore.addChannel( token, CHANNEL_ONE );
+		((Map<String, String>) ReflectionTestUtils.getField( handler, "sessionTokens" )).put( ANY_TEXT, token );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.UNSUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( message ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		assertThat( snapshotStore.channelsOf( token ) ).isEmpty();
+	}//end handleTextMessage_withUnsubscribeActionAndResumeToken_shouldBeRemoveChannelFromToken()
+	
+	@Test
+	void handleTextMessage_withBatchSubscribe_shouldBeSubscribeAllWithSingleAck() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		sessionToChannels.put( ANY_TEXT, new HashSet<>(List.of(CHANNEL_ONE)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.putArray( "channels" ).add( CHANNEL_ONE ).add( CHANNEL_TWO ).add( CHANNEL_TWO ).add( " " );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.SUBSCRIBED, actual.getAction() );
+		assertThat( objectMapper.readValue( actual.getPayload(), List.class ) )
+			.containsExactly( CHANNEL_ONE, CHANNEL_TWO );
+		assertThat( channelSubscriptions ).containsOnlyKeys( CHANNEL_TWO );
+		assertThat( sessionToChannels.get( ANY_TEXT ) ).containsExactlyInAnyOrder( CHANNEL_ONE, CHANNEL_TWO );
+		assertThat( loggerHelper.getOutContent() )
+			.contains("WebSocket session " + ANY_TEXT + " subscribed to 1 of 2 requested channels");
+	}//end handleTextMessage_withBatchSubscribe_shouldBeSubscribeAllWithSingleAck()
+	
+	@Test
+	void handleTextMessage_withBatchUnsubscribe_shouldBeUnsubscribeAllWithSingleAck() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		channelSubscriptions.put( CHANNEL_TWO, new HashSet<>(List.of(session)) );
+		sessionToChannels.put( ANY_TEXT, new HashSet<>(List.of(CHANNEL_ONE, CHANNEL_TWO)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.UNSUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.putArray( "channels" ).add( CHANNEL_TWO );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.UNSUBSCRIBED, actual.getAction() );
+		assertThat( objectMapper.readValue( actual.getPayload(), List.class ) )
+			.containsExactly( CHANNEL_ONE, CHANNEL_TWO );
+		assertThat( channelSubscriptions ).isEmpty();
+		assertThat( sessionToChannels.get( ANY_TEXT ) ).isEmpty();
+	}//end handleTextMessage_withBatchUnsubscribe_shouldBeUnsubscribeAllWithSingleAck()
+	
+	@Test
+	void handleTextMessage_withEmptyBatch_shouldBeSendErrorMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.putArray( "channels" );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.ERROR, actual.getAction() );
+		assertEquals( "Channel is required", actual.getPayload() );
+	}//end handleTextMessage_withEmptyBatch_shouldBeSendErrorMessage()
+	
+	@Test
+	void handleTextMessage_withSubscribeFilter_shouldBeSendOnlyMatchingMessages() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "filter", "price > 10" );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		handler.handleTextMessage( session, textMessage );
+		
+		handler.sendToChannel( CHANNEL_ONE, "{\"price\":5}" );
+		handler.sendToChannel( CHANNEL_ONE, "{\"price\":15}" );
+		
+		verify( session, times( 2 ) ).sendMessage( textMessageCaptor.capture() );
+		WebSocketMessage actual = objectMapper.readValue( 
+				textMessageCaptor.getAllValues().get( 1 ).getPayload(), WebSocketMessage.class );
+		assertEquals( WebSocketActionEnum.MESSAGE, actual.getAction() );
+		assertEquals( "{\"price\":15}", actual.getPayload() );
+	}//end handleTextMessage_withSubscribeFilter_shouldBeSendOnlyMatchingMessages()
+	
+	@Test
+	void handleTextMessage_withInvalidFilter_shouldBeSendErrorMessageWithoutSubscribe() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "filter", "price >" );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.ERROR, actual.getAction() );
+		assertThat( actual.getPayload() ).contains("Invalid filter");
+		assertThat( channelSubscriptions ).isEmpty();
+	}//end handleTextMessage_withInvalidFilter_shouldBeSendErrorMessageWithoutSubscribe()
+	
+	@Test
+	void unsubscribe_withFilter_shouldBeReleaseSharedFilter() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage subscribe = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( subscribe );
+		frame.put( "filter", "price > 10" );
+		WebSocketMessage unsubscribe = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.UNSUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		when( textMessage.getPayload() ).thenReturn( 
+				objectMapper.writeValueAsString( frame ), objectMapper.writeValueAsString( unsubscribe ) );
+		PayloadFilterRegistry registry = (PayloadFilterRegistry) ReflectionTestUtils.getField( handler, "filterRegistry" );
+		
+		handler.handleTextMessage( session, textMessage );
+		assertEquals( 1, registry.size() );
+		handler.handleTextMessage( session, textMessage );
+		
+		assertEquals( 0, registry.size() );
+		assertThat( (Map<String, ?>) ReflectionTestUtils.getField( handler, "channelFilters" ) ).isEmpty();
+	}//end unsubscribe_withFilter_shouldBeReleaseSharedFilter()
+	
+	@Test
+	void handleTextMessage_withSubscribeActionWhenFilterChanges_shouldBeAcknowledgeUpdate() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( CHANNEL_ONE )
+				.build();
+		ObjectNode filtered = objectMapper.valueToTree( message );
+		filtered.put( "filter", "price > 10" );
+		when( textMessage.getPayload() ).thenReturn( 
+				objectMapper.writeValueAsString( filtered ), objectMapper.writeValueAsString( message ) );
+		PayloadFilterRegistry registry = (PayloadFilterRegistry) ReflectionTestUtils.getField( handler, "filterRegistry" );
+		
+		handler.handleTextMessage( session, textMessage );
+		handler.handleTextMessage( session, textMessage );
+		handler.sendToChannel( CHANNEL_ONE, "{\"price\":5}" );
+		
+		verify( session, times( 3 ) ).sendMessage( textMessageCaptor.capture() );
+		List<TextMessage> sent = textMessageCaptor.getAllValues();
+		assertEquals( WebSocketActionEnum.SUBSCRIBED, 
+				objectMapper.readValue( sent.get( 1 ).getPayload(), WebSocketMessage.class ).getAction() );
+		assertEquals( "{\"price\":5}", 
+				objectMapper.readValue( sent.get( 2 ).getPayload(), WebSocketMessage.class ).getPayload() );
+		assertEquals( 0, registry.size() );
+	}//end handleTextMessage_withSubscribeActionWhenFilterChanges_shouldBeAcknowledgeUpdate()
+	
+	@Test
+	void handleTextMessage_withBatchSubscribeFilter_shouldBeShareOneFilter() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.putArray( "channels" ).add( CHANNEL_ONE ).add( CHANNEL_TWO );
+		frame.put( "filter", "price > 10" );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		PayloadFilterRegistry registry = (PayloadFilterRegistry) ReflectionTestUtils.getField( handler, "filterRegistry" );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		assertEquals( 1, registry.size() );
+		assertThat( (Map<String, Map<String, PayloadFilter>>) ReflectionTestUtils.getField( handler, "channelFilters" ) )
+			.allSatisfy( ( channel, filters ) -> assertThat( filters ).containsKey( ANY_TEXT ) )
+			.hasSize( 2 );
+	}//end handleTextMessage_withBatchSubscribeFilter_shouldBeShareOneFilter()
+	
 	@Test
 	void handleTextMessage_withUnsubscribeAction_shouldBeUnsubscribeAndRemoveChannel() throws Exception {
 		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
@@ -379,6 +656,217 @@ class WebSocketMessageHandlerTest {
 			.contains("Published message to channel " + CHANNEL_ONE);
 	}//end sendToCHannel_whenSendMessageThrowException_shouldBeSendErrorMessage()
 	
+	@Test
+	void handleTextMessage_withSendActionAndTtl_shouldBeDropExpiredMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( CHANNEL_ONE )
+				.payload( "expiring" )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "ttl", 1 );
+		TextMessage send = new TextMessage( objectMapper.writeValueAsString( frame ) );
+		
+		List<WebSocketMessage> written = writtenWhileSessionIsBusy( () -> {
+			handler.handleTextMessage( session, send );
+			Thread.sleep( 10L );
+		});
+		
+		assertThat( written ).extracting( WebSocketMessage::getPayload ).containsExactly( ANY_TEXT );
+	}//end handleTextMessage_withSendActionAndTtl_shouldBeDropExpiredMessage()
+	
+	@Test
+	void sendToChannel_withChannelTtl_shouldBeDropExpiredMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelProperties.getTtlMs().put( CHANNEL_TWO, 1L );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		channelSubscriptions.put( CHANNEL_TWO, new HashSet<>(List.of(session)) );
+		
+		List<WebSocketMessage> written = writtenWhileSessionIsBusy( () -> {
+			handler.sendToChannel( CHANNEL_TWO, "expiring" );
+			Thread.sleep( 10L );
+		});
+		
+		assertThat( written ).extracting( WebSocketMessage::getPayload ).containsExactly( ANY_TEXT );
+	}//end sendToChannel_withChannelTtl_shouldBeDropExpiredMessage()
+	
+	@Test
+	void handleTextMessage_withSendActionAndMaxTtl_shouldBeSendMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( CHANNEL_ONE )
+				.payload( ANY_TEXT )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "ttl", Long.MAX_VALUE );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.MESSAGE, actual.getAction() );
+		assertEquals( ANY_TEXT, actual.getPayload() );
+	}//end handleTextMessage_withSendActionAndMaxTtl_shouldBeSendMessage()
+	
+	@ParameterizedTest
+	@ValueSource(longs = { 0L, -1L })
+	void handleTextMessage_withSendActionAndNotPositiveTtl_shouldBeSendErrorMessage( long ttl ) throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( CHANNEL_ONE )
+				.payload( ANY_TEXT )
+				.build();
+		ObjectNode frame = objectMapper.valueToTree( message );
+		frame.put( "ttl", ttl );
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( frame ) );
+		
+		handler.handleTextMessage( session, textMessage );
+		
+		WebSocketMessage actual = recoverSentMessage( session );
+		assertEquals( WebSocketActionEnum.ERROR, actual.getAction() );
+		assertEquals( "TTL must be positive", actual.getPayload() );
+	}//end handleTextMessage_withSendActionAndNotPositiveTtl_shouldBeSendErrorMessage()
+	
+	@Test
+	void sendToChannel_withPriorityChannel_shouldBeWriteBeforeBulkChannel() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelProperties.getPriority().put( CHANNEL_TWO, 1 );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		channelSubscriptions.put( CHANNEL_TWO, new HashSet<>(List.of(session)) );
+		
+		List<WebSocketMessage> written = writtenWhileSessionIsBusy( () -> {
+			handler.sendToChannel( CHANNEL_ONE, "bulk" );
+			handler.sendToChannel( CHANNEL_TWO, "priority" );
+		});
+		
+		assertThat( written ).extracting( WebSocketMessage::getPayload )
+			.containsExactly( ANY_TEXT, "priority", "bulk" );
+	}//end sendToChannel_withPriorityChannel_shouldBeWriteBeforeBulkChannel()
+	
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 3 })
+	void sendToChannel_withControlLanePriority_shouldBeWriteAfterControlFrames( int lanes ) throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		ReflectionTestUtils.setField( handler, "outboundLanes", lanes );
+		channelProperties.getPriority().put( CHANNEL_TWO, 0 );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		channelSubscriptions.put( CHANNEL_TWO, new HashSet<>(List.of(session)) );
+		TextMessage invalid = new TextMessage( "{\"action\":\"SEND\"}" );
+		
+		List<WebSocketMessage> written = writtenWhileSessionIsBusy( () -> {
+			handler.sendToChannel( CHANNEL_TWO, "priority" );
+			handler.handleTextMessage( session, invalid );
+		});
+		
+		assertThat( written ).extracting( WebSocketMessage::getAction )
+			.containsExactly( WebSocketActionEnum.MESSAGE, WebSocketActionEnum.ERROR, WebSocketActionEnum.MESSAGE );
+	}//end sendToChannel_withControlLanePriority_shouldBeWriteAfterControlFrames()
+	
+	@Test
+	void sendToChannel_withClosedSession_doesNotQueueMessage() throws Exception {
+		when( session.isOpen() ).thenReturn( false );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		
+		handler.sendToChannel( CHANNEL_ONE, ANY_TEXT );
+		
+		verify( session, never() ).sendMessage( any(TextMessage.class) );
+		assertThat( (Map<String, ?>) ReflectionTestUtils.getField( handler, "sessionQueues" ) ).isEmpty();
+	}//end sendToChannel_withClosedSession_doesNotQueueMessage()
+	
+	@Test
+	void sendToChannel_withFlightRecording_shouldBeRecordFanOutAndWriteEvents() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		Path file = Files.createTempFile( "message-tracing", ".jfr" );
+		
+		try( Recording recording = new Recording() ) {
+			recording.enable( FanOutEvent.class );
+			recording.enable( SessionWriteEvent.class );
+			recording.start();
+			handler.sendToChannel( CHANNEL_ONE, ANY_TEXT );
+			recording.stop();
+			recording.dump( file );
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents( file );
+			assertThat( events )
+				.anyMatch( event -> FanOutEvent.NAME.equals( event.getEventType().getName() )
+						&& CHANNEL_ONE.equals( event.getString("channel") )
+						&& event.getInt("subscribers") == 1 )
+				.anyMatch( event -> SessionWriteEvent.NAME.equals( event.getEventType().getName() )
+						&& ANY_TEXT.equals( event.getString("sessionId") ) );
+		} finally {
+			Files.deleteIfExists( file );
+		}//end try
+	}//end sendToChannel_withFlightRecording_shouldBeRecordFanOutAndWriteEvents()
+	
+	@Test
+	void handleTextMessage_withFlightRecording_shouldBeShareTraceIdAcrossEvents() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( CHANNEL_ONE )
+				.payload( ANY_TEXT )
+				.build();
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( message ) );
+		Path file = Files.createTempFile( "message-tracing", ".jfr" );
+		
+		try( Recording recording = new Recording() ) {
+			List.of( MessageReceivedEvent.class, MessageParsedEvent.class, FanOutEvent.class,
+					MessageSerializedEvent.class, SessionWriteEvent.class ).forEach( recording::enable );
+			recording.start();
+			handler.handleTextMessage( session, textMessage );
+			recording.stop();
+			recording.dump( file );
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents( file ).stream()
+					.filter( event -> event.getEventType().getName().startsWith("com.jlmorab.ms.message.") )
+					.toList();
+			List<Long> traceIds = events.stream().map( event -> event.getLong("traceId") ).toList();
+			assertThat( traceIds )
+				.hasSize( 5 )
+				.doesNotContain( MessageTracing.NOT_SAMPLED )
+				.containsOnly( traceIds.get( 0 ) );
+		} finally {
+			Files.deleteIfExists( file );
+		}//end try
+	}//end handleTextMessage_withFlightRecording_shouldBeShareTraceIdAcrossEvents()
+	
+	@Test
+	void handleTextMessage_withUnsampledMessage_doesNotRecordEvents() throws Exception {
+		when( session.isOpen() ).thenReturn( true );
+		channelSubscriptions.put( CHANNEL_ONE, new HashSet<>(List.of(session)) );
+		WebSocketMessage message = WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( CHANNEL_ONE )
+				.payload( ANY_TEXT )
+				.build();
+		when( textMessage.getPayload() ).thenReturn( objectMapper.writeValueAsString( message ) );
+		tracing.setSampleRatio( 0.0 );
+		Path file = Files.createTempFile( "message-tracing", ".jfr" );
+		
+		try( Recording recording = new Recording() ) {
+			List.of( MessageReceivedEvent.class, MessageParsedEvent.class, FanOutEvent.class,
+					MessageSerializedEvent.class, SessionWriteEvent.class ).forEach( recording::enable );
+			recording.start();
+			handler.handleTextMessage( session, textMessage );
+			recording.stop();
+			recording.dump( file );
+			
+			assertThat( RecordingFile.readAllEvents( file ) )
+				.noneMatch( event -> event.getEventType().getName().startsWith("com.jlmorab.ms.message.") );
+			verify( session ).sendMessage( any(TextMessage.class) );
+		} finally {
+			Files.deleteIfExists( file );
+		}//end try
+	}//end handleTextMessage_withUnsampledMessage_doesNotRecordEvents()
+	
 	@Test
 	void handleTextMessage_whenSendErrorMessageThrowException_shouldBeSentLoggerOutput() throws Exception {
 		when( session.isOpen() ).thenReturn( true );
@@ -426,6 +914,20 @@ class WebSocketMessageHandlerTest {
 	}//end cleanUpInactiveSession_withoutInactiveSession_doesNotRemoveSession()
 	
 	
+	private List<WebSocketMessage> writtenWhileSessionIsBusy( Executable whileBusy ) throws Exception {
+		List<WebSocketMessage> written = new ArrayList<>();
+		AtomicBoolean first = new AtomicBoolean( true );
+		doAnswer( invocation -> {
+			written.add( objectMapper.readValue( 
+					invocation.getArgument( 0, TextMessage.class ).getPayload(), WebSocketMessage.class ) );
+			if( first.getAndSet( false ) ) whileBusy.execute();
+			return null;
+		}).when( session ).sendMessage( any(TextMessage.class) );
+		
+		handler.sendToChannel( CHANNEL_ONE, ANY_TEXT );
+		return written;
+	}//end writtenWhileSessionIsBusy()
+	
 	private WebSocketMessage recoverSentMessage( WebSocketSession session ) {
 		try {
 			verify( session ).sendMessage( textMessageCaptor.capture() );
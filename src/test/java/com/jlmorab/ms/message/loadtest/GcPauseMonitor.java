@@ -0,0 +1,90 @@
+package com.jlmorab.ms.message.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.HdrHistogram.Histogram;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Collects the stop-the-world pauses of the load generator JVM while a run is
+ * measured. Concurrent cycles are ignored since they don't stop the clients.
+ */
+class GcPauseMonitor implements NotificationListener, AutoCloseable {
+
+	private final Histogram pauses = new Histogram( 3 );
+
+	private final LongAdder totalPauseMillis = new LongAdder();
+
+	private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+	void start() {
+		for( GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans() ) {
+			if( bean instanceof NotificationEmitter emitter ) {
+				emitter.addNotificationListener( this, null, null );
+				emitters.add( emitter );
+			}//end if
+		}//end for
+	}//end start()
+
+	@Override
+	public void handleNotification( Notification notification, Object handback ) {
+		if( !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals( notification.getType() ) ) return;
+		
+		GarbageCollectionNotificationInfo info = 
+				GarbageCollectionNotificationInfo.from( (CompositeData) notification.getUserData() );
+		if( !isPause( info ) ) return;
+		
+		long duration = info.getGcInfo().getDuration();
+		synchronized( pauses ) {
+			pauses.recordValue( duration );
+		}//end synchronized
+		totalPauseMillis.add( duration );
+	}//end handleNotification()
+
+	void reset() {
+		synchronized( pauses ) {
+			pauses.reset();
+		}//end synchronized
+		totalPauseMillis.reset();
+	}//end reset()
+
+	Histogram pausesMillis() {
+		synchronized( pauses ) {
+			return pauses.copy();
+		}//end synchronized
+	}//end pausesMillis()
+
+	long getTotalPauseMillis() {
+		return totalPauseMillis.sum();
+	}//end getTotalPauseMillis()
+
+	@Override
+	public void close() {
+		for( NotificationEmitter emitter : emitters ) {
+			try {
+				emitter.removeNotificationListener( this );
+			} catch( ListenerNotFoundException e ) {
+				// already removed
+			}//end try
+		}//end for
+		emitters.clear();
+	}//end close()
+
+	static boolean isPause( GarbageCollectionNotificationInfo info ) {
+		String action = info.getGcAction().toLowerCase();
+		String name = info.getGcName().toLowerCase();
+		return !action.contains("concurrent") && !name.contains("cycles");
+	}//end isPause()
+
+}
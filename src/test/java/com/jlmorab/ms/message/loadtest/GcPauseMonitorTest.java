@@ -0,0 +1,21 @@
+package com.jlmorab.ms.message.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class GcPauseMonitorTest {
+
+	@Test
+	void reset_afterStart_shouldBeDiscardPauses() {
+		try( GcPauseMonitor monitor = new GcPauseMonitor() ) {
+			monitor.start();
+			
+			monitor.reset();
+			
+			assertEquals( 0L, monitor.pausesMillis().getTotalCount() );
+			assertEquals( 0L, monitor.getTotalPauseMillis() );
+		}//end try
+	}//end reset_afterStart_shouldBeDiscardPauses()
+
+}
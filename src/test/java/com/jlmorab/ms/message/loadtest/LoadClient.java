@@ -0,0 +1,107 @@
+package com.jlmorab.ms.message.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlmorab.ms.enums.WebSocketActionEnum;
+import com.jlmorab.ms.message.WebSocketMessage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One simulated broker client. Frames are sent from a single thread at a time
+ * (the run coordinator while subscribing, its publisher afterwards), as
+ * required by {@link WebSocket}.
+ */
+@Slf4j
+class LoadClient implements WebSocket.Listener {
+
+	static final char PAYLOAD_SEPARATOR = '|';
+
+	private final ObjectMapper mapper;
+
+	private final LoadMetrics metrics;
+
+	private final CountDownLatch subscribed;
+
+	private final StringBuilder buffer = new StringBuilder();
+
+	private WebSocket webSocket;
+
+	LoadClient( ObjectMapper mapper, LoadMetrics metrics, CountDownLatch subscribed ) {
+		this.mapper = mapper;
+		this.metrics = metrics;
+		this.subscribed = subscribed;
+	}//end LoadClient()
+
+	void connect( HttpClient httpClient, URI uri ) {
+		webSocket = httpClient.newWebSocketBuilder().buildAsync( uri, this ).join();
+	}//end connect()
+
+	void subscribe( String channel ) throws JsonProcessingException {
+		send( WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SUBSCRIBE )
+				.channel( channel )
+				.build() );
+	}//end subscribe()
+
+	void publish( String channel, long scheduledNanos, String padding ) throws JsonProcessingException {
+		send( WebSocketMessage.builder()
+				.action( WebSocketActionEnum.SEND )
+				.channel( channel )
+				.payload( scheduledNanos + String.valueOf( PAYLOAD_SEPARATOR ) + padding )
+				.build() );
+		metrics.recordSent();
+	}//end publish()
+
+	void close() {
+		if( webSocket != null && !webSocket.isOutputClosed() ) {
+			webSocket.sendClose( WebSocket.NORMAL_CLOSURE, "" ).join();
+		}//end if
+	}//end close()
+
+	@Override
+	public CompletionStage<?> onText( WebSocket socket, CharSequence data, boolean last ) {
+		buffer.append( data );
+		if( last ) {
+			String text = buffer.toString();
+			buffer.setLength( 0 );
+			handle( text );
+		}//end if
+		socket.request( 1 );
+		return null;
+	}//end onText()
+
+	@Override
+	public void onError( WebSocket socket, Throwable error ) {
+		log.warn("Load client error: {}", error.getMessage());
+	}//end onError()
+
+	void handle( String text ) {
+		try {
+			JsonNode frame = mapper.readTree( text );
+			String action = frame.path("action").asText();
+			if( WebSocketActionEnum.SUBSCRIBED.name().equals( action ) ) {
+				subscribed.countDown();
+			} else if( WebSocketActionEnum.MESSAGE.name().equals( action ) ) {
+				String payload = frame.path("payload").asText();
+				int separator = payload.indexOf( PAYLOAD_SEPARATOR );
+				long scheduledNanos = Long.parseLong( separator < 0 ? payload : payload.substring( 0, separator ) );
+				metrics.recordDelivery( scheduledNanos, frame.path("timestamp").asLong() );
+			}//end if
+		} catch( Exception e ) {
+			log.warn("Unexpected frame received: {}", e.getMessage());
+		}//end try
+	}//end handle()
+
+	private void send( WebSocketMessage message ) throws JsonProcessingException {
+		webSocket.sendText( mapper.writeValueAsString( message ), true ).join();
+	}//end send()
+
+}
@@ -0,0 +1,63 @@
+package com.jlmorab.ms.message.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+import java.net.http.WebSocket;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class LoadClientTest {
+
+	LoadMetrics metrics;
+
+	CountDownLatch subscribed;
+
+	LoadClient client;
+
+	@Mock
+	WebSocket webSocket;
+
+	@BeforeEach
+	void setUp() {
+		metrics = new LoadMetrics();
+		subscribed = new CountDownLatch( 1 );
+		client = new LoadClient( new ObjectMapper(), metrics, subscribed );
+	}//end setUp()
+
+	@Test
+	void onText_withSubscribedFrame_shouldBeCountDownSubscriptions() {
+		client.onText( webSocket, "{\"action\":\"SUBSCRIBED\",\"channel\":\"load-0\"}", true );
+		
+		assertEquals( 0L, subscribed.getCount() );
+		verify( webSocket ).request( 1 );
+	}//end onText_withSubscribedFrame_shouldBeCountDownSubscriptions()
+	
+	@Test
+	void onText_withPartialMessageFrame_shouldBeRecordDeliveryWhenComplete() {
+		String frame = "{\"action\":\"MESSAGE\",\"channel\":\"load-0\",\"payload\":\"" 
+				+ System.nanoTime() + "|xxxx\",\"timestamp\":" + System.currentTimeMillis() + "}";
+		
+		client.onText( webSocket, frame.substring( 0, 10 ), false );
+		assertEquals( 0L, metrics.getReceived() );
+		client.onText( webSocket, frame.substring( 10 ), true );
+		
+		assertEquals( 1L, metrics.getReceived() );
+	}//end onText_withPartialMessageFrame_shouldBeRecordDeliveryWhenComplete()
+	
+	@Test
+	void onText_withInvalidPayload_doesNotRecordDelivery() {
+		client.onText( webSocket, "{\"action\":\"MESSAGE\",\"payload\":\"invalid\"}", true );
+		
+		assertEquals( 0L, metrics.getReceived() );
+	}//end onText_withInvalidPayload_doesNotRecordDelivery()
+
+}
@@ -0,0 +1,154 @@
+package com.jlmorab.ms.message.loadtest;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens local WebSocket clients against {@code /ws/broker}, subscribes them to
+ * a deterministic (seeded) set of channels and publishes at a fixed rate,
+ * then reports throughput, latency percentiles and GC pauses.
+ * <p>
+ * Run it with {@code mvn -Pload-test test-compile exec:java -Dexec.args="--connections=500 --rate=20000"}
+ * while the broker is running on the same host.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadGenerator {
+
+	private static final long SUBSCRIBE_TIMEOUT_SECONDS = 30L;
+
+	private static final long DRAIN_MILLIS = 1000L;
+
+	private final LoadGeneratorOptions options;
+
+	private final ObjectMapper mapper = new ObjectMapper()
+			.configure( DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false );
+
+	private final LoadMetrics metrics = new LoadMetrics();
+
+	private volatile boolean running;
+
+	public static void main( String[] args ) throws Exception {
+		new LoadGenerator( LoadGeneratorOptions.parse( args ) ).run();
+	}//end main()
+
+	public void run() throws Exception {
+		options.validate();
+		CountDownLatch subscribed = new CountDownLatch( options.getConnections() * options.getSubscriptions() );
+		HttpClient httpClient = HttpClient.newHttpClient();
+		List<LoadClient> clients = new ArrayList<>( options.getConnections() );
+		
+		try( GcPauseMonitor gcMonitor = new GcPauseMonitor() ) {
+			for( int i = 0; i < options.getConnections(); i++ ) {
+				LoadClient client = new LoadClient( mapper, metrics, subscribed );
+				client.connect( httpClient, options.getUri() );
+				clients.add( client );
+				for( String channel : subscriptionsOf( i ) ) {
+					client.subscribe( channel );
+				}//end for
+			}//end for
+			log.info("Opened {} connections against {}", clients.size(), options.getUri());
+			
+			if( !subscribed.await( SUBSCRIBE_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+				log.warn("{} subscriptions weren't acknowledged", subscribed.getCount());
+			}//end if
+			
+			gcMonitor.start();
+			running = true;
+			List<Thread> publishers = startPublishers( clients );
+			
+			TimeUnit.SECONDS.sleep( options.getWarmupSeconds() );
+			metrics.reset();
+			gcMonitor.reset();
+			long measureStart = System.nanoTime();
+			
+			TimeUnit.SECONDS.sleep( options.getDurationSeconds() );
+			running = false;
+			for( Thread publisher : publishers ) {
+				publisher.join();
+			}//end for
+			TimeUnit.MILLISECONDS.sleep( DRAIN_MILLIS );
+			
+			report( ( System.nanoTime() - measureStart ) / 1_000_000_000.0, gcMonitor );
+		} finally {
+			clients.forEach( LoadClient::close );
+		}//end try
+	}//end run()
+
+	Set<String> subscriptionsOf( int connection ) {
+		Random random = new Random( options.getSeed() + connection );
+		Set<String> channels = new LinkedHashSet<>();
+		while( channels.size() < options.getSubscriptions() ) {
+			channels.add( channelName( random.nextInt( options.getChannels() ) ) );
+		}//end while
+		return channels;
+	}//end subscriptionsOf()
+
+	static String channelName( int index ) {
+		return "load-" + index;
+	}//end channelName()
+
+	private List<Thread> startPublishers( List<LoadClient> clients ) {
+		List<Thread> publishers = new ArrayList<>( options.getPublishers() );
+		long intervalNanos = TimeUnit.SECONDS.toNanos( options.getPublishers() ) / options.getRate();
+		String padding = "x".repeat( options.getPayloadSize() );
+		
+		for( int p = 0; p < options.getPublishers(); p++ ) {
+			LoadClient client = clients.get( p );
+			Random random = new Random( ~options.getSeed() + p );
+			Thread publisher = new Thread( () -> publish( client, random, intervalNanos, padding ), "load-publisher-" + p );
+			publisher.start();
+			publishers.add( publisher );
+		}//end for
+		return publishers;
+	}//end startPublishers()
+
+	private void publish( LoadClient client, Random random, long intervalNanos, String padding ) {
+		long next = System.nanoTime();
+		while( running ) {
+			long wait = next - System.nanoTime();
+			if( wait > 0 ) LockSupport.parkNanos( wait );
+			try {
+				client.publish( channelName( random.nextInt( options.getChannels() ) ), next, padding );
+			} catch( Exception e ) {
+				log.warn("Publish failed: {}", e.getMessage());
+				return;
+			}//end try
+			next += intervalNanos;
+		}//end while
+	}//end publish()
+
+	private void report( double seconds, GcPauseMonitor gcMonitor ) {
+		Histogram endToEnd = metrics.endToEndMicros();
+		Histogram brokerToClient = metrics.brokerToClientMillis();
+		Histogram gcPauses = gcMonitor.pausesMillis();
+		
+		log.info("Connections={} channels={} subscriptions/connection={} publishers={} target rate={} msg/s seed={}",
+				options.getConnections(), options.getChannels(), options.getSubscriptions(),
+				options.getPublishers(), options.getRate(), options.getSeed());
+		log.info("Published {} msg ({} msg/s), delivered {} msg ({} msg/s) in {} s",
+				metrics.getSent(), Math.round( metrics.getSent() / seconds ),
+				metrics.getReceived(), Math.round( metrics.getReceived() / seconds ),
+				String.format("%.1f", seconds));
+		log.info("End-to-end latency: {}", LoadMetrics.describe( endToEnd, "us" ));
+		log.info("Broker timestamp latency: {}", LoadMetrics.describe( brokerToClient, "ms" ));
+		log.info("Load generator GC pauses: count={} total={}ms max={}ms",
+				gcPauses.getTotalCount(), gcMonitor.getTotalPauseMillis(), gcPauses.getMaxValue());
+	}//end report()
+
+}
@@ -0,0 +1,106 @@
+package com.jlmorab.ms.message.loadtest;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a load generation run. Every value can be overridden from the
+ * command line with {@code --name=value}, e.g. {@code --connections=500}.
+ */
+@Getter
+@Builder
+public class LoadGeneratorOptions {
+
+	public static final String DEFAULT_URI = "ws://localhost:8080/message-local/ws/broker";
+
+	@Builder.Default
+	private URI uri = URI.create( DEFAULT_URI );
+
+	@Builder.Default
+	private int connections = 100;
+
+	@Builder.Default
+	private int channels = 10;
+
+	@Builder.Default
+	private int subscriptions = 1;
+
+	@Builder.Default
+	private int publishers = 1;
+
+	@Builder.Default
+	private int rate = 1000;
+
+	@Builder.Default
+	private int payloadSize = 64;
+
+	@Builder.Default
+	private int warmupSeconds = 5;
+
+	@Builder.Default
+	private int durationSeconds = 30;
+
+	@Builder.Default
+	private long seed = 42L;
+
+	public static LoadGeneratorOptions parse( String... args ) {
+		LoadGeneratorOptionsBuilder builder = LoadGeneratorOptions.builder();
+		for( String arg : args ) {
+			int separator = arg.indexOf( '=' );
+			if( !arg.startsWith("--") || separator < 0 ) {
+				throw new IllegalArgumentException("Invalid argument, expected --name=value: " + arg);
+			}//end if
+			
+			String name = arg.substring( 2, separator );
+			String value = arg.substring( separator + 1 );
+			switch( name ) {
+				case "uri" -> builder.uri( URI.create( value ) );
+				case "connections" -> builder.connections( Integer.parseInt( value ) );
+				case "channels" -> builder.channels( Integer.parseInt( value ) );
+				case "subscriptions" -> builder.subscriptions( Integer.parseInt( value ) );
+				case "publishers" -> builder.publishers( Integer.parseInt( value ) );
+				case "rate" -> builder.rate( Integer.parseInt( value ) );
+				case "payload-size" -> builder.payloadSize( Integer.parseInt( value ) );
+				case "warmup-seconds" -> builder.warmupSeconds( Integer.parseInt( value ) );
+				case "duration-seconds" -> builder.durationSeconds( Integer.parseInt( value ) );
+				case "seed" -> builder.seed( Long.parseLong( value ) );
+				default -> throw new IllegalArgumentException("Unknown argument: " + name);
+			}//end switch
+		}//end for
+		
+		LoadGeneratorOptions options = builder.build();
+		options.validate();
+		return options;
+	}//end parse()
+
+	public void validate() {
+		if( uri.getHost() == null || !isLoopback( uri.getHost() ) ) {
+			throw new IllegalArgumentException("Load generator only runs against localhost: " + uri);
+		}//end if
+		if( connections < 1 || channels < 1 || publishers < 1 || rate < 1 || durationSeconds < 1 ) {
+			throw new IllegalArgumentException("connections, channels, publishers, rate and duration-seconds must be positive");
+		}//end if
+		if( subscriptions < 0 || subscriptions > channels ) {
+			throw new IllegalArgumentException("subscriptions must be between 0 and channels");
+		}//end if
+		if( publishers > connections ) {
+			throw new IllegalArgumentException("publishers can't exceed connections");
+		}//end if
+		if( payloadSize < 0 || warmupSeconds < 0 ) {
+			throw new IllegalArgumentException("payload-size and warmup-seconds can't be negative");
+		}//end if
+	}//end validate()
+
+	private static boolean isLoopback( String host ) {
+		try {
+			return InetAddress.getByName( host ).isLoopbackAddress();
+		} catch( UnknownHostException e ) {
+			return false;
+		}//end try
+	}//end isLoopback()
+
+}
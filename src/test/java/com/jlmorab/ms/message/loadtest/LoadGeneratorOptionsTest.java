@@ -0,0 +1,56 @@
+package com.jlmorab.ms.message.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LoadGeneratorOptionsTest {
+
+	@Test
+	void parse_withoutArguments_shouldBeUseDefaults() {
+		LoadGeneratorOptions options = LoadGeneratorOptions.parse();
+		
+		assertEquals( URI.create( LoadGeneratorOptions.DEFAULT_URI ), options.getUri() );
+		assertEquals( 100, options.getConnections() );
+		assertEquals( 42L, options.getSeed() );
+	}//end parse_withoutArguments_shouldBeUseDefaults()
+	
+	@Test
+	void parse_withArguments_shouldBeOverrideDefaults() {
+		LoadGeneratorOptions options = LoadGeneratorOptions.parse( 
+				"--uri=ws://127.0.0.1:9090/message-local/ws/broker", "--connections=20", "--channels=5",
+				"--subscriptions=2", "--publishers=4", "--rate=500", "--payload-size=16",
+				"--warmup-seconds=0", "--duration-seconds=3", "--seed=7" );
+		
+		assertEquals( 9090, options.getUri().getPort() );
+		assertEquals( 20, options.getConnections() );
+		assertEquals( 5, options.getChannels() );
+		assertEquals( 2, options.getSubscriptions() );
+		assertEquals( 4, options.getPublishers() );
+		assertEquals( 500, options.getRate() );
+		assertEquals( 16, options.getPayloadSize() );
+		assertEquals( 0, options.getWarmupSeconds() );
+		assertEquals( 3, options.getDurationSeconds() );
+		assertEquals( 7L, options.getSeed() );
+	}//end parse_withArguments_shouldBeOverrideDefaults()
+	
+	@ParameterizedTest
+	@ValueSource(strings = { "connections=1", "--unknown=1", "--connections=0", "--subscriptions=11", "--publishers=101" })
+	void parse_withInvalidArgument_shouldBeThrowException( String argument ) {
+		assertThatThrownBy( () -> LoadGeneratorOptions.parse( argument ) )
+			.isInstanceOf( IllegalArgumentException.class );
+	}//end parse_withInvalidArgument_shouldBeThrowException()
+	
+	@Test
+	void parse_withRemoteHost_shouldBeThrowException() {
+		assertThatThrownBy( () -> LoadGeneratorOptions.parse( "--uri=ws://203.0.113.10:8080/ws/broker" ) )
+			.isInstanceOf( IllegalArgumentException.class )
+			.hasMessageContaining("only runs against localhost");
+	}//end parse_withRemoteHost_shouldBeThrowException()
+
+}
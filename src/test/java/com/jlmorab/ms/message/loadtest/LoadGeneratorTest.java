@@ -0,0 +1,29 @@
+package com.jlmorab.ms.message.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+	@Test
+	void subscriptionsOf_withSameSeed_shouldBeDeterministic() {
+		LoadGeneratorOptions options = LoadGeneratorOptions.builder()
+				.channels( 50 )
+				.subscriptions( 5 )
+				.seed( 7L )
+				.build();
+		
+		Set<String> first = new LoadGenerator( options ).subscriptionsOf( 3 );
+		Set<String> second = new LoadGenerator( options ).subscriptionsOf( 3 );
+		
+		assertEquals( first, second );
+		assertThat( first )
+			.hasSize( 5 )
+			.allMatch( channel -> channel.startsWith("load-") );
+	}//end subscriptionsOf_withSameSeed_shouldBeDeterministic()
+
+}
@@ -0,0 +1,73 @@
+package com.jlmorab.ms.message.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Counters and latency histograms shared by every client of a run. Recording
+ * is wait-free so it can be called from the WebSocket listener threads.
+ */
+class LoadMetrics {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Recorder endToEnd = new Recorder( SIGNIFICANT_DIGITS );
+
+	private final Recorder brokerToClient = new Recorder( SIGNIFICANT_DIGITS );
+
+	private final LongAdder sent = new LongAdder();
+
+	private final LongAdder received = new LongAdder();
+
+	void recordSent() {
+		sent.increment();
+	}//end recordSent()
+
+	/**
+	 * @param scheduledNanos {@code System.nanoTime()} at which the publisher was
+	 * supposed to send the message, so a stalled publisher is not hidden
+	 * @param brokerTimestamp {@code timestamp} field set by the broker on fan-out
+	 */
+	void recordDelivery( long scheduledNanos, long brokerTimestamp ) {
+		long now = System.nanoTime();
+		endToEnd.recordValue( Math.max( 0L, TimeUnit.NANOSECONDS.toMicros( now - scheduledNanos ) ) );
+		brokerToClient.recordValue( Math.max( 0L, System.currentTimeMillis() - brokerTimestamp ) );
+		received.increment();
+	}//end recordDelivery()
+
+	void reset() {
+		endToEnd.reset();
+		brokerToClient.reset();
+		sent.reset();
+		received.reset();
+	}//end reset()
+
+	long getSent() {
+		return sent.sum();
+	}//end getSent()
+
+	long getReceived() {
+		return received.sum();
+	}//end getReceived()
+
+	Histogram endToEndMicros() {
+		return endToEnd.getIntervalHistogram();
+	}//end endToEndMicros()
+
+	Histogram brokerToClientMillis() {
+		return brokerToClient.getIntervalHistogram();
+	}//end brokerToClientMillis()
+
+	static String describe( Histogram histogram, String unit ) {
+		return String.format("count=%d p50=%d%s p99=%d%s p999=%d%s max=%d%s",
+				histogram.getTotalCount(),
+				histogram.getValueAtPercentile( 50.0 ), unit,
+				histogram.getValueAtPercentile( 99.0 ), unit,
+				histogram.getValueAtPercentile( 99.9 ), unit,
+				histogram.getMaxValue(), unit);
+	}//end describe()
+
+}
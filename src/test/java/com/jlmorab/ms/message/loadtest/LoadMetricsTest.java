@@ -0,0 +1,45 @@
+package com.jlmorab.ms.message.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+class LoadMetricsTest {
+
+	LoadMetrics metrics = new LoadMetrics();
+
+	@Test
+	void recordDelivery_shouldBeCountAndRecordLatencies() {
+		metrics.recordSent();
+		metrics.recordDelivery( System.nanoTime(), System.currentTimeMillis() );
+		
+		assertEquals( 1L, metrics.getSent() );
+		assertEquals( 1L, metrics.getReceived() );
+		assertEquals( 1L, metrics.endToEndMicros().getTotalCount() );
+		assertEquals( 1L, metrics.brokerToClientMillis().getTotalCount() );
+	}//end recordDelivery_shouldBeCountAndRecordLatencies()
+	
+	@Test
+	void reset_shouldBeDiscardRecordedValues() {
+		metrics.recordSent();
+		metrics.recordDelivery( System.nanoTime(), System.currentTimeMillis() );
+		
+		metrics.reset();
+		
+		assertEquals( 0L, metrics.getSent() );
+		assertEquals( 0L, metrics.getReceived() );
+		assertEquals( 0L, metrics.endToEndMicros().getTotalCount() );
+	}//end reset_shouldBeDiscardRecordedValues()
+	
+	@Test
+	void describe_shouldBeIncludePercentiles() {
+		Histogram histogram = new Histogram( 3 );
+		histogram.recordValue( 10 );
+		
+		assertThat( LoadMetrics.describe( histogram, "us" ) )
+			.contains("count=1", "p50=10us", "p99=10us", "p999=10us", "max=10us");
+	}//end describe_shouldBeIncludePercentiles()
+
+}
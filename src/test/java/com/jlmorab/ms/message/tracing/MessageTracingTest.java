@@ -0,0 +1,72 @@
+package com.jlmorab.ms.message.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class MessageTracingTest {
+
+	MessageTracing tracing = new MessageTracing();
+
+	ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withBean( MessageTracing.class );
+
+	@Test
+	void sample_withDefaultRatio_shouldBeSampleAll() {
+		assertNotEquals( MessageTracing.NOT_SAMPLED, tracing.sample() );
+	}//end sample_withDefaultRatio_shouldBeSampleAll()
+	
+	@Test
+	void sample_withZeroRatio_doesNotSample() {
+		tracing.setSampleRatio( 0.0 );
+		
+		assertEquals( MessageTracing.NOT_SAMPLED, tracing.sample() );
+	}//end sample_withZeroRatio_doesNotSample()
+	
+	@ParameterizedTest
+	@ValueSource(doubles = { -0.1, 1.1, Double.NaN })
+	void setSampleRatio_withRatioOutOfRange_shouldBeThrowException( double ratio ) {
+		assertThatThrownBy( () -> tracing.setSampleRatio( ratio ) )
+			.isInstanceOf( IllegalArgumentException.class );
+		assertEquals( 1.0, tracing.getSampleRatio() );
+	}//end setSampleRatio_withRatioOutOfRange_shouldBeThrowException()
+	
+	@Test
+	void sampleRatio_withConfiguredRatio_shouldBeInjected() {
+		contextRunner.withPropertyValues("websocket.tracing.sample-ratio=0.25")
+			.run( context -> assertEquals( 0.25, context.getBean( MessageTracing.class ).getSampleRatio() ) );
+	}//end sampleRatio_withConfiguredRatio_shouldBeInjected()
+	
+	@ParameterizedTest
+	@ValueSource(strings = { "5", "-1" })
+	void sampleRatio_withConfiguredRatioOutOfRange_shouldBeFailStartup( String ratio ) {
+		contextRunner.withPropertyValues("websocket.tracing.sample-ratio=" + ratio )
+			.run( context -> assertThat( context ).hasFailed() );
+	}//end sampleRatio_withConfiguredRatioOutOfRange_shouldBeFailStartup()
+	
+	@Test
+	void shouldCommit_withoutRecording_doesNotCommit() {
+		FanOutEvent event = new FanOutEvent();
+		event.begin();
+		event.end();
+		
+		assertFalse( tracing.shouldCommit( event, tracing.sample() ) );
+	}//end shouldCommit_withoutRecording_doesNotCommit()
+	
+	@Test
+	void shouldCommit_withUnsampledMessage_doesNotCommit() {
+		FanOutEvent event = new FanOutEvent();
+		event.begin();
+		event.end();
+		
+		assertFalse( tracing.shouldCommit( event, MessageTracing.NOT_SAMPLED ) );
+	}//end shouldCommit_withUnsampledMessage_doesNotCommit()
+
+}